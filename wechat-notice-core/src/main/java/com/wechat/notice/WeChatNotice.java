@@ -0,0 +1,254 @@
+package com.wechat.notice;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.wechat.notice.client.WeChatApiClient;
+import com.wechat.notice.client.WeChatConnectionWarmer;
+import com.wechat.notice.client.WeChatHttpClients;
+import com.wechat.notice.client.WeChatTicketManager;
+import com.wechat.notice.client.WeChatTokenManager;
+import com.wechat.notice.client.transport.ApacheWeChatTransport;
+import com.wechat.notice.client.transport.WeChatEndpointRouter;
+import com.wechat.notice.client.transport.WeChatTransport;
+import com.wechat.notice.config.WeChatNoticeProperties;
+import com.wechat.notice.exception.WeChatNoticeException;
+import com.wechat.notice.service.WeChatAppConfigService;
+import com.wechat.notice.service.WeChatNoticeService;
+import com.wechat.notice.service.impl.WeChatAppConfigServiceImpl;
+import com.wechat.notice.service.impl.WeChatNoticeServiceImpl;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 微信通知组件入口
+ * 非Spring环境下一次调用完成组装，HTTP连接池、Token管理与通知服务的配置与Spring Boot Starter一致
+ *
+ * <pre>
+ * try (WeChatNotice weChatNotice = WeChatNotice.bootstrap(properties)) {
+ *     weChatNotice.getNoticeService().sendText("消息内容", "user1");
+ * }
+ * </pre>
+ *
+ * @author fyf
+ */
+@Slf4j
+@Getter
+public final class WeChatNotice implements AutoCloseable {
+    
+    /**
+     * 微信通知配置属性
+     */
+    private final WeChatNoticeProperties properties;
+    
+    /**
+     * JSON序列化工具
+     */
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * 消息发送HTTP客户端
+     */
+    private final CloseableHttpClient httpClient;
+    
+    /**
+     * 异步发送HTTP客户端，首次异步发送时才创建
+     */
+    @Getter(AccessLevel.NONE)
+    private CloseableHttpAsyncClient asyncHttpClient;
+    
+    /**
+     * 是否已关闭，关闭后不再创建异步发送HTTP客户端
+     */
+    @Getter(AccessLevel.NONE)
+    private boolean closed;
+    
+    /**
+     * gettoken与票据接口专用HTTP客户端
+     */
+    private final CloseableHttpClient tokenHttpClient;
+    
+    /**
+     * API地址路由器
+     */
+    private final WeChatEndpointRouter endpointRouter;
+    
+    /**
+     * 消息发送传输层
+     */
+    private final WeChatTransport transport;
+    
+    /**
+     * 连接预热器，未开启connectionWarmUpEnabled时为null
+     */
+    private final WeChatConnectionWarmer connectionWarmer;
+    
+    /**
+     * Token管理器
+     */
+    private final WeChatTokenManager tokenManager;
+    
+    /**
+     * JS-SDK票据管理器
+     */
+    private final WeChatTicketManager ticketManager;
+    
+    /**
+     * 微信API客户端
+     */
+    private final WeChatApiClient apiClient;
+    
+    /**
+     * 应用配置服务
+     */
+    private final WeChatAppConfigService appConfigService;
+    
+    /**
+     * 微信通知服务
+     */
+    private final WeChatNoticeService noticeService;
+    
+    /**
+     * 构造方法
+     * 任一组件创建失败时按创建的逆序关闭已创建的连接池与后台线程，再抛出原异常
+     *
+     * @param properties 微信通知配置属性
+     */
+    private WeChatNotice(WeChatNoticeProperties properties) {
+        this.properties = properties;
+        this.objectMapper = createObjectMapper();
+        Deque<AutoCloseable> created = new ArrayDeque<>();
+        try {
+            this.httpClient = WeChatHttpClients.createHttpClient(properties);
+            created.push(httpClient);
+            this.tokenHttpClient = WeChatHttpClients.createTokenHttpClient(properties);
+            created.push(tokenHttpClient);
+            this.endpointRouter = new WeChatEndpointRouter(properties);
+            this.transport = endpointRouter.route(new ApacheWeChatTransport(httpClient, this::getAsyncHttpClient));
+            WeChatTransport tokenTransport = endpointRouter.route(new ApacheWeChatTransport(tokenHttpClient));
+            this.connectionWarmer = properties.getApi().isConnectionWarmUpEnabled()
+                ? new WeChatConnectionWarmer(transport, properties) : null;
+            if (connectionWarmer != null) {
+                created.push(connectionWarmer);
+            }
+            this.tokenManager = new WeChatTokenManager(tokenTransport, objectMapper, properties);
+            created.push(tokenManager);
+            this.ticketManager = new WeChatTicketManager(tokenTransport, objectMapper, tokenManager, properties);
+            created.push(ticketManager);
+            this.apiClient = new WeChatApiClient(transport, objectMapper, tokenManager, properties);
+            created.push(apiClient);
+            this.appConfigService = new WeChatAppConfigServiceImpl(properties);
+            this.noticeService = new WeChatNoticeServiceImpl(apiClient, appConfigService, properties);
+        } catch (RuntimeException | Error e) {
+            while (!created.isEmpty()) {
+                closeQuietly(created.pop(), e);
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * 按配置组装全部组件
+     * 开启tokenWarmUpEnabled时在返回前按预算预热所有应用的Token，开启connectionWarmUpEnabled时预热消息发送连接
+     *
+     * @param properties 微信通知配置属性
+     * @return 组件入口，使用完毕后需要关闭以释放连接池与后台线程
+     */
+    public static WeChatNotice bootstrap(WeChatNoticeProperties properties) {
+        WeChatNotice weChatNotice = new WeChatNotice(properties);
+        try {
+            if (weChatNotice.connectionWarmer != null) {
+                weChatNotice.connectionWarmer.start();
+            }
+            if (properties.getApi().isTokenWarmUpEnabled()) {
+                weChatNotice.tokenManager.warmUp(weChatNotice.appConfigService.getAllApps());
+            }
+        } catch (RuntimeException | Error e) {
+            // 预热失败时调用方拿不到实例，无法自行关闭
+            weChatNotice.close();
+            throw e;
+        }
+        log.info("WeChat Notice 组装完成: maxConnections={}, maxConnectionsPerRoute={}",
+            properties.getApi().getMaxConnections(), properties.getApi().getMaxConnectionsPerRoute());
+        return weChatNotice;
+    }
+    
+    /**
+     * 获取异步发送HTTP客户端
+     * 首次调用时创建并启动，只使用同步发送时不会创建
+     *
+     * @return 已启动的异步HTTP客户端
+     */
+    public synchronized CloseableHttpAsyncClient getAsyncHttpClient() {
+        if (closed) {
+            throw new WeChatNoticeException("WeChatNotice已关闭，无法异步发送请求");
+        }
+        if (asyncHttpClient == null) {
+            asyncHttpClient = WeChatHttpClients.createAsyncHttpClient(properties);
+            log.debug("WeChat AsyncHttpClient创建完成");
+        }
+        return asyncHttpClient;
+    }
+    
+    /**
+     * 按创建的逆序关闭组件，释放连接池与后台线程
+     */
+    @Override
+    public void close() {
+        if (connectionWarmer != null) {
+            connectionWarmer.close();
+        }
+        apiClient.close();
+        ticketManager.close();
+        tokenManager.close();
+        CloseableHttpAsyncClient createdAsyncHttpClient;
+        synchronized (this) {
+            closed = true;
+            createdAsyncHttpClient = asyncHttpClient;
+        }
+        if (createdAsyncHttpClient != null) {
+            closeQuietly(createdAsyncHttpClient);
+        }
+        closeQuietly(tokenHttpClient);
+        closeQuietly(httpClient);
+    }
+    
+    private static ObjectMapper createObjectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        mapper.configure(DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT, true);
+        mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        return mapper;
+    }
+    
+    /**
+     * 关闭组件，失败时附加到原异常上
+     *
+     * @param resource 已创建的组件
+     * @param failure 导致关闭的异常
+     */
+    private static void closeQuietly(AutoCloseable resource, Throwable failure) {
+        try {
+            resource.close();
+        } catch (Exception e) {
+            failure.addSuppressed(e);
+        }
+    }
+    
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            log.warn("关闭HTTP客户端失败", e);
+        }
+    }
+}
\ No newline at end of file
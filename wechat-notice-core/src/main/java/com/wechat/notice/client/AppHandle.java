@@ -0,0 +1,56 @@
+package com.wechat.notice.client;
+
+import com.wechat.notice.config.WeChatAppConfig;
+
+/**
+ * 已解析的应用句柄
+ * 按应用名称解析一次后反复使用，发送时不再查找应用配置、计算缓存Key或查询Token存储
+ *
+ * @author fyf
+ */
+public final class AppHandle {
+    
+    /**
+     * 应用配置
+     */
+    private final WeChatAppConfig appConfig;
+    
+    /**
+     * 该应用凭证对应的Token槽位
+     */
+    final TokenSlot tokenSlot;
+    
+    /**
+     * 该应用的熔断器，首次发送时由WeChatApiClient解析并保存，之后发送不再查找
+     */
+    volatile WeChatCircuitBreaker circuitBreaker;
+    
+    /**
+     * 构造方法
+     *
+     * @param appConfig 应用配置
+     * @param tokenSlot Token槽位
+     */
+    AppHandle(WeChatAppConfig appConfig, TokenSlot tokenSlot) {
+        this.appConfig = appConfig;
+        this.tokenSlot = tokenSlot;
+    }
+    
+    /**
+     * 获取应用配置
+     *
+     * @return 应用配置
+     */
+    public WeChatAppConfig getAppConfig() {
+        return appConfig;
+    }
+    
+    /**
+     * 获取应用名称
+     *
+     * @return 应用名称
+     */
+    public String getAppName() {
+        return appConfig.getAppName();
+    }
+}
\ No newline at end of file
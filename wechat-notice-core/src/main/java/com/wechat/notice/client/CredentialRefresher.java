@@ -0,0 +1,348 @@
+package com.wechat.notice.client;
+
+import com.wechat.notice.client.token.AccessToken;
+import com.wechat.notice.client.token.TokenStore;
+import com.wechat.notice.config.WeChatNoticeProperties;
+import com.wechat.notice.exception.WeChatNoticeException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 凭据刷新器
+ * WeChatTokenManager与WeChatTicketManager共用的刷新逻辑：同一Key同一时刻只有一个请求（单飞），
+ * 凭据剩余有效期降到生命周期的tokenRefreshAheadRatio时在后台提前刷新，后台刷新失败时按间隔重试
+ *
+ * @author fyf
+ */
+@Slf4j
+final class CredentialRefresher {
+    
+    /**
+     * 后台刷新失败后的重试间隔（毫秒）
+     */
+    private static final long REFRESH_RETRY_DELAY_MILLIS = 30 * 1000L;
+    
+    /**
+     * 凭据名称，用于日志和异常信息
+     */
+    private final String name;
+    
+    /**
+     * 凭据存储
+     */
+    private final TokenStore store;
+    
+    /**
+     * 微信通知配置属性
+     */
+    private final WeChatNoticeProperties properties;
+    
+    /**
+     * 后台刷新调度器，为null时不做后台刷新
+     */
+    private final ScheduledExecutorService scheduler;
+    
+    /**
+     * 刷新结果监听器
+     */
+    private final Listener listener;
+    
+    /**
+     * 各凭据的获取方式，后台刷新时使用，Key同store
+     */
+    private final Map<String, Supplier<AccessToken>> fetchers = new ConcurrentHashMap<>();
+    
+    /**
+     * 进行中的刷新，Key同store
+     */
+    private final Map<String, CompletableFuture<AccessToken>> inflightRefreshes = new ConcurrentHashMap<>();
+    
+    /**
+     * 已调度的后台刷新任务，Key同store
+     */
+    private final Map<String, ScheduledFuture<?>> scheduledRefreshes = new ConcurrentHashMap<>();
+    
+    /**
+     * 构造方法
+     *
+     * @param name 凭据名称，如Token、票据
+     * @param store 凭据存储
+     * @param properties 微信通知配置属性
+     * @param scheduler 后台刷新调度器，由本刷新器负责关闭，可为null
+     * @param listener 刷新结果监听器
+     */
+    CredentialRefresher(String name, TokenStore store, WeChatNoticeProperties properties,
+                        ScheduledExecutorService scheduler, Listener listener) {
+        this.name = name;
+        this.store = store;
+        this.properties = properties;
+        this.scheduler = scheduler;
+        this.listener = listener;
+    }
+    
+    /**
+     * 登记凭据的获取方式，后台刷新时使用；已登记过的Key保持不变
+     *
+     * @param cacheKey 缓存Key
+     * @param fetcher 请求企业微信获取新凭据，不写入存储
+     */
+    void register(String cacheKey, Supplier<AccessToken> fetcher) {
+        fetchers.putIfAbsent(cacheKey, fetcher);
+    }
+    
+    /**
+     * 是否已登记凭据的获取方式
+     * 调用方先检查再登记，避免热路径上每次都创建获取方式
+     *
+     * @param cacheKey 缓存Key
+     * @return 已登记时返回true
+     */
+    boolean isRegistered(String cacheKey) {
+        return fetchers.containsKey(cacheKey);
+    }
+    
+    /**
+     * 刷新凭据（单飞）
+     * 同一cacheKey并发刷新时只有一个线程发起请求，其余线程等待同一个结果；成功后写入存储并调度后台刷新
+     *
+     * @param cacheKey 缓存Key
+     * @param force 是否忽略缓存强制刷新
+     * @param fetcher 请求企业微信获取新凭据，不写入存储
+     * @return 凭据
+     */
+    AccessToken refresh(String cacheKey, boolean force, Supplier<AccessToken> fetcher) {
+        return refresh(cacheKey, force, fetcher, SendDeadline.UNBOUNDED);
+    }
+    
+    /**
+     * 在截止时间内刷新凭据（单飞）
+     * 等待其他线程发起的刷新时最多等到截止时间；自行发起请求时由fetcher负责按截止时间限制超时
+     *
+     * @param cacheKey 缓存Key
+     * @param force 是否忽略缓存强制刷新
+     * @param fetcher 请求企业微信获取新凭据，不写入存储
+     * @param deadline 截止时间
+     * @return 凭据
+     */
+    AccessToken refresh(String cacheKey, boolean force, Supplier<AccessToken> fetcher, SendDeadline deadline) {
+        CompletableFuture<AccessToken> refresh = new CompletableFuture<>();
+        CompletableFuture<AccessToken> inflight = inflightRefreshes.putIfAbsent(cacheKey, refresh);
+        if (inflight != null) {
+            log.debug("等待进行中的{}刷新: cacheKey={}", name, cacheKey);
+            return awaitRefresh(inflight, deadline);
+        }
+        
+        try {
+            // 双重检查：等待putIfAbsent期间可能已有其他线程完成刷新
+            AccessToken cached = store.get(cacheKey);
+            if (!force && cached != null && cached.isValid(System.currentTimeMillis())) {
+                refresh.complete(cached);
+                return cached;
+            }
+            
+            AccessToken credential = fetcher.get();
+            store.put(cacheKey, credential);
+            refresh.complete(credential);
+            listener.onRefreshed(cacheKey, credential);
+            scheduleRefresh(cacheKey, credential);
+            return credential;
+        } catch (RuntimeException e) {
+            refresh.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflightRefreshes.remove(cacheKey, refresh);
+        }
+    }
+    
+    /**
+     * 等待其他线程发起的刷新结果
+     *
+     * @param inflight 进行中的刷新
+     * @param deadline 截止时间
+     * @return 凭据
+     */
+    private AccessToken awaitRefresh(CompletableFuture<AccessToken> inflight, SendDeadline deadline) {
+        try {
+            return deadline.isUnbounded() ? inflight.get()
+                : inflight.get(Math.max(0, deadline.remainingMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new WeChatNoticeException("发送超时，等待" + name + "刷新超过截止时间");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WeChatNoticeException("等待" + name + "刷新时被中断", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof WeChatNoticeException) {
+                throw (WeChatNoticeException) e.getCause();
+            }
+            throw new WeChatNoticeException("获取" + name + "失败", e.getCause());
+        }
+    }
+    
+    /**
+     * 为尚未调度后台刷新的凭据调度刷新，用于来自共享存储（如其他进程写入）的凭据
+     *
+     * @param cacheKey 缓存Key
+     * @param credential 当前凭据
+     */
+    void scheduleIfAbsent(String cacheKey, AccessToken credential) {
+        if (isRefreshAheadEnabled() && !scheduledRefreshes.containsKey(cacheKey)) {
+            scheduleRefresh(cacheKey, credential);
+        }
+    }
+    
+    /**
+     * 调度后台刷新任务
+     * 在凭据剩余有效期降到生命周期的tokenRefreshAheadRatio时触发，使调用方不再阻塞在凭据获取上
+     *
+     * @param cacheKey 缓存Key
+     * @param credential 当前凭据
+     */
+    private void scheduleRefresh(String cacheKey, AccessToken credential) {
+        if (!isRefreshAheadEnabled()) {
+            return;
+        }
+        scheduleRefreshAfter(cacheKey, Math.max(refreshTime(credential) - System.currentTimeMillis(), 0));
+    }
+    
+    /**
+     * 是否启用提前后台刷新
+     *
+     * @return true-启用，false-未启用
+     */
+    private boolean isRefreshAheadEnabled() {
+        return scheduler != null && properties.getApi().getTokenRefreshAheadRatio() > 0;
+    }
+    
+    /**
+     * 计算凭据的后台刷新时刻
+     *
+     * @param credential 当前凭据
+     * @return 刷新时刻（毫秒时间戳）
+     */
+    private long refreshTime(AccessToken credential) {
+        double aheadRatio = Math.min(properties.getApi().getTokenRefreshAheadRatio(), 1.0);
+        return credential.getExpiresTime() - (long) (credential.getLifetime() * aheadRatio);
+    }
+    
+    /**
+     * 在指定延迟后执行后台刷新，同一cacheKey只保留最新的一个任务
+     *
+     * @param cacheKey 缓存Key
+     * @param delayMillis 延迟时间（毫秒）
+     */
+    void scheduleRefreshAfter(String cacheKey, long delayMillis) {
+        if (scheduler == null) {
+            return;
+        }
+        try {
+            ScheduledFuture<?> task = scheduler.schedule(
+                () -> backgroundRefresh(cacheKey), delayMillis, TimeUnit.MILLISECONDS);
+            ScheduledFuture<?> previous = scheduledRefreshes.put(cacheKey, task);
+            if (previous != null && previous != task) {
+                previous.cancel(false);
+            }
+        } catch (RejectedExecutionException e) {
+            log.debug("{}刷新调度器已关闭，跳过后台刷新: cacheKey={}", name, cacheKey);
+        }
+    }
+    
+    /**
+     * 取消已调度的后台刷新
+     *
+     * @param cacheKey 缓存Key
+     */
+    void cancel(String cacheKey) {
+        ScheduledFuture<?> task = scheduledRefreshes.remove(cacheKey);
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+    
+    /**
+     * 后台刷新凭据
+     *
+     * @param cacheKey 缓存Key
+     */
+    private void backgroundRefresh(String cacheKey) {
+        Supplier<AccessToken> fetcher = fetchers.get(cacheKey);
+        AccessToken cached = store.get(cacheKey);
+        if (fetcher == null || cached == null) {
+            // 缓存已被清除，下次使用时再按需获取
+            scheduledRefreshes.remove(cacheKey);
+            return;
+        }
+        if (refreshTime(cached) > System.currentTimeMillis()) {
+            // 共享存储中的凭据已被其他进程刷新，按新凭据重新调度
+            scheduleRefresh(cacheKey, cached);
+            return;
+        }
+        
+        try {
+            refresh(cacheKey, true, fetcher);
+            log.debug("后台刷新{}成功: cacheKey={}", name, cacheKey);
+        } catch (RuntimeException e) {
+            if (cached.isValid(System.currentTimeMillis())) {
+                log.warn("后台刷新{}失败，{}秒后重试: cacheKey={}, error={}",
+                    name, REFRESH_RETRY_DELAY_MILLIS / 1000, cacheKey, e.getMessage());
+                scheduleRefreshAfter(cacheKey, REFRESH_RETRY_DELAY_MILLIS);
+            } else if (!listener.onExpiredRefreshFailed(cacheKey, cached, e)) {
+                log.warn("后台刷新{}失败，{}已过期，改为按需获取: cacheKey={}, error={}",
+                    name, name, cacheKey, e.getMessage());
+                scheduledRefreshes.remove(cacheKey);
+            }
+        }
+    }
+    
+    /**
+     * 关闭后台刷新调度器
+     */
+    void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        scheduledRefreshes.clear();
+    }
+    
+    /**
+     * 刷新结果监听器
+     */
+    interface Listener {
+        
+        /**
+         * 不做任何处理的监听器
+         */
+        Listener NONE = new Listener() {
+        };
+        
+        /**
+         * 凭据刷新成功并已写入存储
+         *
+         * @param cacheKey 缓存Key
+         * @param credential 新凭据
+         */
+        default void onRefreshed(String cacheKey, AccessToken credential) {
+        }
+        
+        /**
+         * 后台刷新失败且缓存的凭据已过期
+         *
+         * @param cacheKey 缓存Key
+         * @param expired 已过期的凭据
+         * @param e 刷新异常
+         * @return true-已自行安排后续刷新，false-停止后台刷新，改为按需获取
+         */
+        default boolean onExpiredRefreshFailed(String cacheKey, AccessToken expired, RuntimeException e) {
+            return false;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.wechat.notice.client;
+
+/**
+ * 单次发送的截止时间
+ * 获取Token、每次发送请求和重试退避共用同一截止时间
+ *
+ * @author fyf
+ */
+final class SendDeadline {
+    
+    /**
+     * 不限制截止时间
+     */
+    static final SendDeadline UNBOUNDED = new SendDeadline(0);
+    
+    /**
+     * 截止时刻（System.nanoTime），为0表示不限制
+     */
+    private final long deadlineNanos;
+    
+    private SendDeadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+    
+    /**
+     * 创建从当前起指定时长后到期的截止时间
+     *
+     * @param timeoutMillis 超时时间（毫秒），不大于0时不限制
+     * @return 截止时间
+     */
+    static SendDeadline after(long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            return UNBOUNDED;
+        }
+        // 避免恰好落在0上被误认为不限制
+        return new SendDeadline((System.nanoTime() + timeoutMillis * 1_000_000L) | 1L);
+    }
+    
+    /**
+     * 是否不限制截止时间
+     *
+     * @return true-不限制
+     */
+    boolean isUnbounded() {
+        return deadlineNanos == 0;
+    }
+    
+    /**
+     * 剩余时间
+     *
+     * @return 剩余时间（毫秒），不限制时为Long.MAX_VALUE，已到期时不大于0
+     */
+    long remainingMillis() {
+        if (isUnbounded()) {
+            return Long.MAX_VALUE;
+        }
+        return (deadlineNanos - System.nanoTime()) / 1_000_000L;
+    }
+}
\ No newline at end of file
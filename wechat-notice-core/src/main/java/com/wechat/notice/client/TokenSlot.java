@@ -0,0 +1,31 @@
+package com.wechat.notice.client;
+
+import com.wechat.notice.client.token.AccessToken;
+
+/**
+ * Token槽位
+ * 每个凭证一个，由WeChatTokenManager维护并被AppHandle直接引用，持有最近一次取得的有效Token
+ *
+ * @author fyf
+ */
+final class TokenSlot {
+    
+    /**
+     * 缓存Key，即凭证标识
+     */
+    final String cacheKey;
+    
+    /**
+     * 最近一次取得的有效Token，为空或过期时回退到TokenStore
+     */
+    volatile AccessToken token;
+    
+    /**
+     * 构造方法
+     *
+     * @param cacheKey 缓存Key
+     */
+    TokenSlot(String cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+}
\ No newline at end of file
@@ -1,43 +1,52 @@
 package com.wechat.notice.client;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wechat.notice.client.token.AccessToken;
+import com.wechat.notice.client.transport.ApacheWeChatTransport;
+import com.wechat.notice.client.transport.WeChatHttpRequest;
+import com.wechat.notice.client.transport.WeChatHttpResponse;
+import com.wechat.notice.client.transport.WeChatTransport;
 import com.wechat.notice.config.WeChatAppConfig;
 import com.wechat.notice.config.WeChatNoticeProperties;
 import com.wechat.notice.exception.WeChatNoticeException;
-import com.wechat.notice.message.WeChatApiResponse;
 import com.wechat.notice.message.WeChatMessage;
 import com.wechat.notice.message.WeChatMessageResult;
-import lombok.RequiredArgsConstructor;
+import com.wechat.notice.message.enums.WeChatErrorCode;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.util.EntityUtils;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 /**
  * 微信API客户端
- * 
+ *
  * @author fyf
  */
 @Slf4j
-@RequiredArgsConstructor
-public class WeChatApiClient {
+public class WeChatApiClient implements AutoCloseable {
     
     /**
-     * HTTP客户端
+     * 请求体内容类型
      */
-    private final CloseableHttpClient httpClient;
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=UTF-8";
     
     /**
-     * JSON序列化工具
+     * HTTP传输层
      */
-    private final ObjectMapper objectMapper;
+    private final WeChatTransport transport;
     
     /**
      * Token管理器
@@ -49,6 +58,102 @@ public class WeChatApiClient {
      */
     private final WeChatNoticeProperties properties;
     
+    /**
+     * 请求体序列化器
+     */
+    private final WeChatMessageSerializer messageSerializer;
+    
+    /**
+     * 响应解析器
+     */
+    private final WeChatSendResponseParser responseParser;
+    
+    /**
+     * 重试退避与截止时间定时器，未启用重试且不限制发送超时时为null
+     */
+    private final ScheduledExecutorService sendTimer;
+    
+    /**
+     * 发送重试策略
+     */
+    private final WeChatRetryPolicy retryPolicy;
+    
+    /**
+     * 同步发送是否重试
+     */
+    private final boolean syncRetryEnabled;
+    
+    /**
+     * 各应用的熔断器，Key为corpId:agentId，未启用熔断时为null
+     */
+    private final ConcurrentHashMap<String, WeChatCircuitBreaker> circuitBreakers;
+    
+    /**
+     * 按应用配置发送时使用的应用句柄，Key为应用配置（按值比较，配置变化后重新解析）
+     */
+    private final ConcurrentHashMap<WeChatAppConfig, AppHandle> appHandles = new ConcurrentHashMap<>();
+    
+    /**
+     * 自适应并发限制器，未启用时为null
+     */
+    private final WeChatConcurrencyLimiter concurrencyLimiter;
+    
+    /**
+     * 构造方法
+     * 使用默认的Apache传输层，不支持异步发送
+     *
+     * @param httpClient HTTP客户端
+     * @param objectMapper JSON序列化工具
+     * @param tokenManager Token管理器
+     * @param properties 微信通知配置属性
+     */
+    public WeChatApiClient(CloseableHttpClient httpClient, ObjectMapper objectMapper,
+                           WeChatTokenManager tokenManager, WeChatNoticeProperties properties) {
+        this(new ApacheWeChatTransport(httpClient), objectMapper, tokenManager, properties);
+    }
+    
+    /**
+     * 构造方法
+     * 使用默认的Apache传输层
+     *
+     * @param httpClient HTTP客户端
+     * @param asyncHttpClient 已启动的异步HTTP客户端
+     * @param objectMapper JSON序列化工具
+     * @param tokenManager Token管理器
+     * @param properties 微信通知配置属性
+     */
+    public WeChatApiClient(CloseableHttpClient httpClient, CloseableHttpAsyncClient asyncHttpClient,
+                           ObjectMapper objectMapper, WeChatTokenManager tokenManager,
+                           WeChatNoticeProperties properties) {
+        this(new ApacheWeChatTransport(httpClient, asyncHttpClient), objectMapper, tokenManager, properties);
+    }
+    
+    /**
+     * 构造方法
+     *
+     * @param transport HTTP传输层
+     * @param objectMapper JSON序列化工具
+     * @param tokenManager Token管理器
+     * @param properties 微信通知配置属性
+     */
+    public WeChatApiClient(WeChatTransport transport, ObjectMapper objectMapper,
+                           WeChatTokenManager tokenManager, WeChatNoticeProperties properties) {
+        this.transport = transport;
+        this.tokenManager = tokenManager;
+        this.properties = properties;
+        this.messageSerializer = new WeChatMessageSerializer(objectMapper);
+        this.responseParser = new WeChatSendResponseParser(objectMapper.getFactory());
+        boolean retryEnabled = properties.getApi().isRetryEnabled() && properties.getApi().getRetryCount() > 0;
+        this.sendTimer = retryEnabled || properties.getApi().getSendTimeout() > 0
+            ? WeChatTokenManager.createRefreshScheduler("wechat-send-timer-", 1)
+            : null;
+        this.retryPolicy = new WeChatRetryPolicy(properties, sendTimer);
+        this.syncRetryEnabled = properties.getApi().isSyncRetryEnabled();
+        this.circuitBreakers = properties.getApi().isCircuitBreakerEnabled() ? new ConcurrentHashMap<>() : null;
+        this.concurrencyLimiter = properties.getApi().isConcurrencyLimitEnabled()
+            ? new WeChatConcurrencyLimiter(properties) : null;
+    }
+    
     /**
      * 获取访问令牌
      *
@@ -59,6 +164,139 @@ public class WeChatApiClient {
         return tokenManager.getAccessToken(appConfig);
     }
     
+    /**
+     * 解析应用句柄
+     *
+     * @param appConfig 应用配置
+     * @return 应用句柄
+     */
+    public AppHandle resolveHandle(WeChatAppConfig appConfig) {
+        return tokenManager.resolveHandle(appConfig);
+    }
+    
+    /**
+     * 发送消息（自动处理Token失效）
+     * 同一应用配置的句柄只解析一次，之后的发送不再计算缓存Key或查找熔断器
+     *
+     * @param appConfig 应用配置
+     * @param message 微信消息对象
+     * @return 消息发送结果
+     */
+    public WeChatMessageResult sendMessage(WeChatAppConfig appConfig, WeChatMessage message) {
+        return sendMessage(cachedHandle(appConfig), message);
+    }
+    
+    private AppHandle cachedHandle(WeChatAppConfig appConfig) {
+        AppHandle appHandle = appHandles.get(appConfig);
+        if (appHandle == null) {
+            // 复制一份作为Key与句柄的配置，调用方之后修改原对象不影响已缓存的句柄
+            WeChatAppConfig snapshot = appConfig.toBuilder().build();
+            appHandle = tokenManager.resolveHandle(snapshot);
+            AppHandle existing = appHandles.putIfAbsent(snapshot, appHandle);
+            if (existing != null) {
+                appHandle = existing;
+            }
+        }
+        return appHandle;
+    }
+    
+    /**
+     * 通过应用句柄发送消息（自动处理Token失效与重试）
+     * 企业微信提前吊销Token（40014、41001、42001）时清除该应用的缓存Token，重新获取后重放一次请求
+     * Token刷新临时失败、使用宽限期内的过期Token发送时，结果的staleToken为true
+     * 开启syncRetryEnabled时，请求未发出的网络异常或可重试错误码（如-1、45009）按重试策略退避后重发，
+     * 退避期间阻塞调用线程；默认不重试，需要重试又不希望占用调用线程时使用sendMessageAsync
+     * 获取Token、各次请求与退避共用sendTimeout截止时间，剩余时间不足以退避时不再重试
+     * 启用熔断且该应用的熔断器打开时不发送请求，直接返回错误码-10001
+     * 启用自适应并发限制时，进行中的请求数达到上限后排队等待，超过截止时间仍未轮到时返回错误码-10002
+     *
+     * @param appHandle 应用句柄
+     * @param message 微信消息对象
+     * @return 消息发送结果
+     */
+    public WeChatMessageResult sendMessage(AppHandle appHandle, WeChatMessage message) {
+        messageSerializer.checkBody(message);
+        SendDeadline deadline = SendDeadline.after(properties.getApi().getSendTimeout());
+        for (int attempt = 1; ; attempt++) {
+            WeChatMessageResult result = null;
+            WeChatNoticeException error = null;
+            try {
+                result = sendGuarded(appHandle, message, deadline);
+            } catch (WeChatNoticeException e) {
+                error = e;
+            }
+            
+            boolean retry = syncRetryEnabled && (error == null ? retryPolicy.shouldRetry(attempt, result)
+                : retryPolicy.shouldRetry(attempt, error));
+            long backoff = retry ? retryPolicy.backoffMillis(attempt) : 0;
+            if (!retry || backoff >= deadline.remainingMillis()) {
+                if (error != null) {
+                    throw error;
+                }
+                return result;
+            }
+            logRetry(appHandle, attempt, result, error);
+            retryPolicy.await(backoff);
+        }
+    }
+    
+    /**
+     * 经熔断器发送一次，网络异常与可重试错误码计为失败
+     * 熔断器打开时在获取Token之前拒绝；慢调用只按HTTP请求本身的耗时判断，获取Token与等待并发许可的时间不计入
+     *
+     * @param appHandle 应用句柄
+     * @param message 微信消息对象
+     * @param deadline 截止时间
+     * @return 消息发送结果，熔断器拒绝时为-10001
+     */
+    private WeChatMessageResult sendGuarded(AppHandle appHandle, WeChatMessage message, SendDeadline deadline) {
+        WeChatCircuitBreaker breaker = circuitBreaker(appHandle);
+        if (breaker == null) {
+            return sendOnce(appHandle, message, deadline, null);
+        }
+        WeChatCircuitBreaker.Phase permit = breaker.tryAcquire();
+        if (permit == null) {
+            return circuitOpenResult(appHandle);
+        }
+        BreakerCall call = new BreakerCall(breaker, permit);
+        WeChatMessageResult result = null;
+        try {
+            result = sendOnce(appHandle, message, deadline, call);
+            return result;
+        } finally {
+            call.complete(result);
+        }
+    }
+    
+    private WeChatMessageResult sendOnce(AppHandle appHandle, WeChatMessage message, SendDeadline deadline,
+                                         BreakerCall call) {
+        AccessToken accessToken = getToken(appHandle, deadline);
+        WeChatMessageResult result = sendMessage(accessToken.getToken(), message, deadline, call);
+        
+        if (!result.isSuccess() && WeChatErrorCode.isTokenInvalid(result.getErrCode())) {
+            log.warn("Token已失效，重新获取Token后重发消息: appName={}, errCode={}, errMsg={}",
+                appHandle.getAppName(), result.getErrCode(), result.getErrMsg());
+            tokenManager.invalidateToken(appHandle.getAppConfig(), accessToken.getToken());
+            accessToken = getToken(appHandle, deadline);
+            result = sendMessage(accessToken.getToken(), message, deadline, call);
+        }
+        
+        result.setStaleToken(!accessToken.isValid(System.currentTimeMillis()));
+        return result;
+    }
+    
+    /**
+     * 在截止时间内获取Token
+     * 需要获取Token时在调用线程上请求gettoken，各项超时不超过剩余时间；等待其他线程发起的刷新时最多等到截止时间
+     *
+     * @param appHandle 应用句柄
+     * @param deadline 截止时间
+     * @return 访问令牌
+     */
+    private AccessToken getToken(AppHandle appHandle, SendDeadline deadline) {
+        return tokenManager.getToken(appHandle, deadline);
+    }
+    
     /**
      * 发送消息
      *
@@ -67,83 +305,436 @@ public class WeChatApiClient {
      * @return 消息发送结果
      */
     public WeChatMessageResult sendMessage(String accessToken, WeChatMessage message) {
-        String baseUrl = properties.getApi().getBaseUrl();
-        String url = String.format("%s/cgi-bin/message/send?access_token=%s", baseUrl, accessToken);
-        
+        messageSerializer.checkBody(message);
+        return sendMessage(accessToken, message, SendDeadline.UNBOUNDED, null);
+    }
+    
+    private WeChatMessageResult sendMessage(String accessToken, WeChatMessage message, SendDeadline deadline,
+                                            BreakerCall call) {
+        WeChatConcurrencyLimiter.Permit permit = null;
+        if (concurrencyLimiter != null) {
+            permit = acquirePermit(deadline);
+            if (permit == null) {
+                return concurrencyLimitedResult();
+            }
+        }
+        boolean overloaded = true;
+        long start = System.nanoTime();
         try {
-            // 构建请求体
-            Map<String, Object> requestBody = buildMessageRequestBody(message);
-            String requestBodyJson = objectMapper.writeValueAsString(requestBody);
-            
-            log.debug("发送消息请求: {}", requestBodyJson);
-            
-            HttpPost post = new HttpPost(url);
-            post.setHeader("Content-Type", "application/json; charset=UTF-8");
-            post.setHeader("User-Agent", "WeChat-Notice-Client/1.0.0");
-            post.setEntity(new StringEntity(requestBodyJson, StandardCharsets.UTF_8));
-            
-            try (CloseableHttpResponse response = httpClient.execute(post)) {
-                String responseBody = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
-                log.debug("发送消息响应: {}", responseBody);
-                
-                WeChatApiResponse apiResponse = objectMapper.readValue(responseBody, WeChatApiResponse.class);
-                
-                if (apiResponse.getErrcode() != null && apiResponse.getErrcode() != 0) {
-                    return WeChatMessageResult.failure(apiResponse.getErrcode(), apiResponse.getErrmsg());
+            WeChatHttpResponse response;
+            try {
+                response = transport.execute(buildSendRequest(accessToken, message, deadline));
+            } catch (IOException e) {
+                log.error("发送微信消息HTTP请求失败", e);
+                throw new WeChatNoticeException("发送微信消息HTTP请求失败", e);
+            }
+            WeChatMessageResult result;
+            try {
+                result = parseSendResponse(response);
+            } catch (IOException e) {
+                throw new WeChatNoticeException("解析微信消息响应失败", e);
+            }
+            overloaded = WeChatErrorCode.isRetryable(result.getErrCode());
+            return result;
+        } finally {
+            if (call != null) {
+                call.recordExchange(System.nanoTime() - start);
+            }
+            if (permit != null) {
+                concurrencyLimiter.release(permit, overloaded);
+            }
+        }
+    }
+    
+    /**
+     * 在截止时间内等待发送许可，调用线程等待
+     *
+     * @param deadline 截止时间
+     * @return 发送许可，超过截止时间返回null
+     */
+    private WeChatConcurrencyLimiter.Permit acquirePermit(SendDeadline deadline) {
+        CompletableFuture<WeChatConcurrencyLimiter.Permit> waiter = concurrencyLimiter.acquire();
+        try {
+            return deadline.isUnbounded() ? waiter.get()
+                : waiter.get(Math.max(0, deadline.remainingMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            concurrencyLimiter.cancel(waiter);
+            return null;
+        } catch (InterruptedException e) {
+            concurrencyLimiter.cancel(waiter);
+            Thread.currentThread().interrupt();
+            throw new WeChatNoticeException("等待发送许可时被中断", e);
+        } catch (ExecutionException e) {
+            throw new WeChatNoticeException("等待发送许可失败", e.getCause());
+        }
+    }
+    
+    /**
+     * 异步发送消息（自动处理Token失效与重试）
+     * 基于异步HTTP客户端，等待响应期间不占用调用线程；处理逻辑与同步发送一致，
+     * 重试的退避与截止时间均由定时器触发，不阻塞任何线程；熔断器打开时以错误码-10001完成
+     *
+     * @param appHandle 应用句柄
+     * @param message 微信消息对象
+     * @return 消息发送结果，HTTP请求失败或超过截止时间时以WeChatNoticeException异常完成
+     */
+    public CompletableFuture<WeChatMessageResult> sendMessageAsync(AppHandle appHandle, WeChatMessage message) {
+        try {
+            messageSerializer.checkBody(message);
+        } catch (WeChatNoticeException e) {
+            CompletableFuture<WeChatMessageResult> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        SendDeadline deadline = SendDeadline.after(properties.getApi().getSendTimeout());
+        return sendAsyncWithRetry(appHandle, message, deadline, 1);
+    }
+    
+    private CompletableFuture<WeChatMessageResult> sendAsyncWithRetry(AppHandle appHandle, WeChatMessage message,
+                                                                      SendDeadline deadline, int attempt) {
+        return sendGuardedAsync(appHandle, message, deadline).handle((result, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+            boolean retry = cause == null ? retryPolicy.shouldRetry(attempt, result)
+                : retryPolicy.shouldRetry(attempt, cause);
+            long backoff = retry ? retryPolicy.backoffMillis(attempt) : 0;
+            if (!retry || backoff >= deadline.remainingMillis()) {
+                CompletableFuture<WeChatMessageResult> done = new CompletableFuture<>();
+                if (cause != null) {
+                    done.completeExceptionally(cause);
+                } else {
+                    done.complete(result);
                 }
-                
-                return WeChatMessageResult.success(apiResponse.getMsgid());
+                return done;
             }
+            logRetry(appHandle, attempt, result, cause);
+            return retryPolicy.delay(backoff)
+                .thenCompose(ignored -> sendAsyncWithRetry(appHandle, message, deadline, attempt + 1));
+        }).thenCompose(Function.identity());
+    }
+    
+    private CompletableFuture<WeChatMessageResult> sendGuardedAsync(AppHandle appHandle, WeChatMessage message,
+                                                                    SendDeadline deadline) {
+        WeChatCircuitBreaker breaker = circuitBreaker(appHandle);
+        if (breaker == null) {
+            return sendOnceAsync(appHandle, message, deadline, null);
+        }
+        WeChatCircuitBreaker.Phase permit = breaker.tryAcquire();
+        if (permit == null) {
+            return CompletableFuture.completedFuture(circuitOpenResult(appHandle));
+        }
+        BreakerCall call = new BreakerCall(breaker, permit);
+        CompletableFuture<WeChatMessageResult> future;
+        try {
+            future = sendOnceAsync(appHandle, message, deadline, call);
+        } catch (RuntimeException e) {
+            call.complete(null);
+            throw e;
+        }
+        return future.whenComplete((result, error) -> call.complete(error == null ? result : null));
+    }
+    
+    private CompletableFuture<WeChatMessageResult> sendOnceAsync(AppHandle appHandle, WeChatMessage message,
+                                                                 SendDeadline deadline, BreakerCall call) {
+        return getTokenAsync(appHandle, deadline).thenCompose(accessToken ->
+            sendMessageAsync(accessToken.getToken(), message, deadline, call).thenCompose(result -> {
+                if (result.isSuccess() || !WeChatErrorCode.isTokenInvalid(result.getErrCode())) {
+                    result.setStaleToken(!accessToken.isValid(System.currentTimeMillis()));
+                    return CompletableFuture.completedFuture(result);
+                }
+                log.warn("Token已失效，重新获取Token后重发消息: appName={}, errCode={}, errMsg={}",
+                    appHandle.getAppName(), result.getErrCode(), result.getErrMsg());
+                tokenManager.invalidateToken(appHandle.getAppConfig(), accessToken.getToken());
+                return getTokenAsync(appHandle, deadline).thenCompose(freshToken ->
+                    sendMessageAsync(freshToken.getToken(), message, deadline, call).thenApply(replayed -> {
+                        replayed.setStaleToken(!freshToken.isValid(System.currentTimeMillis()));
+                        return replayed;
+                    }));
+            }));
+    }
+    
+    /**
+     * 在截止时间内异步获取Token，超时由定时器触发
+     *
+     * @param appHandle 应用句柄
+     * @param deadline 截止时间
+     * @return 访问令牌
+     */
+    private CompletableFuture<AccessToken> getTokenAsync(AppHandle appHandle, SendDeadline deadline) {
+        CompletableFuture<AccessToken> future = tokenManager.getTokenAsync(appHandle, deadline);
+        if (future.isDone() || deadline.isUnbounded() || sendTimer == null) {
+            return future;
+        }
+        
+        CompletableFuture<AccessToken> bounded = new CompletableFuture<>();
+        ScheduledFuture<?> timeout;
+        try {
+            timeout = sendTimer.schedule(() -> bounded.completeExceptionally(new WeChatNoticeException(
+                "发送超时，获取Token超过截止时间: appName=" + appHandle.getAppName())),
+                Math.max(0, deadline.remainingMillis()), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            return future;
+        }
+        future.whenComplete((token, error) -> {
+            timeout.cancel(false);
+            if (error != null) {
+                bounded.completeExceptionally(error);
+            } else {
+                bounded.complete(token);
+            }
+        });
+        return bounded;
+    }
+    
+    /**
+     * 异步发送消息
+     *
+     * @param accessToken 访问令牌
+     * @param message 微信消息对象
+     * @return 消息发送结果，HTTP请求失败时以WeChatNoticeException异常完成
+     */
+    public CompletableFuture<WeChatMessageResult> sendMessageAsync(String accessToken, WeChatMessage message) {
+        try {
+            messageSerializer.checkBody(message);
+        } catch (WeChatNoticeException e) {
+            CompletableFuture<WeChatMessageResult> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        return sendMessageAsync(accessToken, message, SendDeadline.UNBOUNDED, null);
+    }
+    
+    private CompletableFuture<WeChatMessageResult> sendMessageAsync(String accessToken, WeChatMessage message,
+                                                                    SendDeadline deadline, BreakerCall call) {
+        if (concurrencyLimiter == null) {
+            return executeSendAsync(accessToken, message, deadline, call);
+        }
+        CompletableFuture<WeChatConcurrencyLimiter.Permit> waiter = concurrencyLimiter.acquire();
+        if (!waiter.isDone() && !deadline.isUnbounded() && sendTimer != null) {
+            try {
+                // 撤回时同时移出等待队列；定时器触发前已获得的许可由下方回调使用并归还
+                ScheduledFuture<?> timeout = sendTimer.schedule(() -> concurrencyLimiter.withdraw(waiter),
+                    Math.max(0, deadline.remainingMillis()), TimeUnit.MILLISECONDS);
+                waiter.whenComplete((permit, error) -> timeout.cancel(false));
+            } catch (RejectedExecutionException e) {
+                log.debug("发送定时器已关闭，等待发送许可不设截止时间");
+            }
+        }
+        return waiter.handle((permit, error) -> {
+            if (permit == null) {
+                return CompletableFuture.completedFuture(concurrencyLimitedResult());
+            }
+            try {
+                return executeSendAsync(accessToken, message, deadline, call).whenComplete((result, sendError) ->
+                    concurrencyLimiter.release(permit,
+                        sendError != null || WeChatErrorCode.isRetryable(result.getErrCode())));
+            } catch (RuntimeException e) {
+                // 传输层同步抛出异常时同样归还许可，否则名额永久泄漏
+                concurrencyLimiter.release(permit, true);
+                CompletableFuture<WeChatMessageResult> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e instanceof WeChatNoticeException ? e
+                    : new WeChatNoticeException("发送微信消息HTTP请求失败", e));
+                return failed;
+            }
+        }).thenCompose(Function.identity());
+    }
+    
+    private CompletableFuture<WeChatMessageResult> executeSendAsync(String accessToken, WeChatMessage message,
+                                                                    SendDeadline deadline, BreakerCall call) {
+        CompletableFuture<WeChatMessageResult> future = new CompletableFuture<>();
+        WeChatHttpRequest request;
+        try {
+            request = buildSendRequest(accessToken, message, deadline);
         } catch (IOException e) {
-            log.error("发送微信消息HTTP请求失败", e);
-            throw new WeChatNoticeException("发送微信消息HTTP请求失败", e);
+            future.completeExceptionally(new WeChatNoticeException("构建微信消息请求失败", e));
+            return future;
+        }
+        
+        long start = System.nanoTime();
+        transport.executeAsync(request).whenComplete((response, error) -> {
+            if (call != null) {
+                call.recordExchange(System.nanoTime() - start);
+            }
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+                if (cause instanceof WeChatNoticeException) {
+                    future.completeExceptionally(cause);
+                } else {
+                    log.error("异步发送微信消息HTTP请求失败", cause);
+                    future.completeExceptionally(new WeChatNoticeException("发送微信消息HTTP请求失败", cause));
+                }
+                return;
+            }
+            try {
+                future.complete(parseSendResponse(response));
+            } catch (IOException | RuntimeException e) {
+                future.completeExceptionally(new WeChatNoticeException("解析微信消息响应失败", e));
+            }
+        });
+        return future;
+    }
+    
+    /**
+     * 获取应用的熔断器状态
+     *
+     * @param appHandle 应用句柄
+     * @return 熔断器状态，未启用熔断时始终为CLOSED
+     */
+    public WeChatCircuitBreaker.State getCircuitState(AppHandle appHandle) {
+        WeChatCircuitBreaker breaker = circuitBreaker(appHandle);
+        return breaker != null ? breaker.getState() : WeChatCircuitBreaker.State.CLOSED;
+    }
+    
+    /**
+     * 获取应用的熔断器，同一企业应用（corpId与agentId相同）共用一个
+     * 首次使用时解析并保存在应用句柄上，之后直接读取
+     *
+     * @param appHandle 应用句柄
+     * @return 熔断器，未启用熔断时返回null
+     */
+    private WeChatCircuitBreaker circuitBreaker(AppHandle appHandle) {
+        if (circuitBreakers == null) {
+            return null;
+        }
+        WeChatCircuitBreaker breaker = appHandle.circuitBreaker;
+        if (breaker == null) {
+            WeChatAppConfig appConfig = appHandle.getAppConfig();
+            breaker = circuitBreakers.computeIfAbsent(appConfig.getCorpId() + ":" + appConfig.getAgentId(),
+                name -> new WeChatCircuitBreaker(name, properties));
+            appHandle.circuitBreaker = breaker;
+        }
+        return breaker;
+    }
+    
+    private static boolean isBreakerFailure(WeChatMessageResult result) {
+        return result == null || WeChatErrorCode.isRetryable(result.getErrCode());
+    }
+    
+    /**
+     * 获取自适应并发限制器，可用于监控当前并发上限
+     *
+     * @return 并发限制器，未启用时返回null
+     */
+    public WeChatConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+    
+    private static WeChatMessageResult concurrencyLimitedResult() {
+        return WeChatMessageResult.failure(WeChatErrorCode.CONCURRENCY_LIMITED.getCode(),
+            WeChatErrorCode.CONCURRENCY_LIMITED.getDescription());
+    }
+    
+    private static WeChatMessageResult circuitOpenResult(AppHandle appHandle) {
+        return WeChatMessageResult.failure(WeChatErrorCode.CIRCUIT_OPEN.getCode(),
+            WeChatErrorCode.CIRCUIT_OPEN.getDescription() + ": appName=" + appHandle.getAppName());
+    }
+    
+    private static void logRetry(AppHandle appHandle, int attempt, WeChatMessageResult result, Throwable error) {
+        if (error != null) {
+            log.warn("消息发送失败，稍后重试: appName={}, attempt={}, error={}",
+                appHandle.getAppName(), attempt, error.getMessage());
+        } else {
+            log.warn("消息发送失败，稍后重试: appName={}, attempt={}, errCode={}, errMsg={}",
+                appHandle.getAppName(), attempt, result.getErrCode(), result.getErrMsg());
         }
     }
     
     /**
-     * 构建消息请求体
+     * 关闭重试与超时定时器，HTTP客户端由创建方负责关闭
+     */
+    @Override
+    public void close() {
+        if (sendTimer != null) {
+            sendTimer.shutdownNow();
+        }
+    }
+    
+    /**
+     * 构建message/send请求
      *
+     * @param accessToken 访问令牌
      * @param message 微信消息对象
-     * @return 构建后的请求体Map
+     * @param deadline 截止时间，各项超时不超过剩余时间
+     * @return POST请求
+     * @throws IOException 请求体序列化失败时抛出
      */
-    private Map<String, Object> buildMessageRequestBody(WeChatMessage message) {
-        Map<String, Object> requestBody = new HashMap<>();
+    private WeChatHttpRequest buildSendRequest(String accessToken, WeChatMessage message, SendDeadline deadline)
+            throws IOException {
+        String baseUrl = properties.getApi().getBaseUrl();
+        String url = String.format("%s/cgi-bin/message/send?access_token=%s", baseUrl, accessToken);
         
-        // 基础字段
-        requestBody.put("touser", message.getToUser());
-        requestBody.put("toparty", message.getToParty());
-        requestBody.put("totag", message.getToTag());
-        requestBody.put("msgtype", message.getMsgType());
-        requestBody.put("agentid", message.getAgentId());
+        WeChatMessageSerializer.BodyBuffer body = messageSerializer.serialize(message);
+        if (log.isDebugEnabled()) {
+            log.debug("发送消息请求: {}", new String(body.array(), 0, body.size(), StandardCharsets.UTF_8));
+        }
         
-        // 根据消息类型添加特定字段
-        String msgType = message.getMsgType();
-        if ("text".equals(msgType)) {
-            Map<String, String> text = new HashMap<>();
-            text.put("content", message.getContent());
-            requestBody.put("text", text);
-        } else if ("image".equals(msgType)) {
-            Map<String, String> image = new HashMap<>();
-            image.put("media_id", message.getMediaId());
-            requestBody.put("image", image);
-        } else if ("markdown".equals(msgType)) {
-            Map<String, String> markdown = new HashMap<>();
-            markdown.put("content", message.getContent());
-            requestBody.put("markdown", markdown);
-        } else if ("textcard".equals(msgType)) {
-            Map<String, String> textcard = new HashMap<>();
-            textcard.put("title", message.getTitle());
-            textcard.put("description", message.getDescription());
-            textcard.put("url", message.getUrl());
-            textcard.put("btntxt", message.getBtnTxt());
-            requestBody.put("textcard", textcard);
+        WeChatHttpRequest.WeChatHttpRequestBuilder builder = deadline.isUnbounded()
+            ? WeChatRequestConfigs.requestBuilder(properties.getApi())
+            : WeChatRequestConfigs.requestBuilder(properties.getApi(), deadline.remainingMillis());
+        return builder
+            .method(WeChatHttpRequest.POST)
+            .url(url)
+            .contentType(JSON_CONTENT_TYPE)
+            .body(body.array(), body.size())
+            .build();
+    }
+    
+    /**
+     * 解析message/send响应
+     *
+     * @param response HTTP响应
+     * @return 消息发送结果
+     * @throws IOException 响应解析失败时抛出
+     */
+    private WeChatMessageResult parseSendResponse(WeChatHttpResponse response) throws IOException {
+        if (log.isDebugEnabled()) {
+            log.debug("发送消息响应: {}", new String(response.getBody(), StandardCharsets.UTF_8));
         }
+        return responseParser.parse(response.getBody());
+    }
+    
+    /**
+     * 一次经熔断器的发送
+     * 只累计HTTP请求本身的耗时，获取Token与等待并发许可的时间不计入慢调用判断；Token失效重放时累计两次请求
+     */
+    private static final class BreakerCall {
+        
+        /**
+         * 熔断器
+         */
+        private final WeChatCircuitBreaker breaker;
         
-        // 处理扩展字段
-        if (message.getExtra() != null && !message.getExtra().isEmpty()) {
-            requestBody.putAll(message.getExtra());
+        /**
+         * 熔断器许可
+         */
+        private final WeChatCircuitBreaker.Phase permit;
+        
+        /**
+         * HTTP请求累计耗时（纳秒）
+         */
+        private final AtomicLong exchangeNanos = new AtomicLong();
+        
+        BreakerCall(WeChatCircuitBreaker breaker, WeChatCircuitBreaker.Phase permit) {
+            this.breaker = breaker;
+            this.permit = permit;
+        }
+        
+        void recordExchange(long durationNanos) {
+            exchangeNanos.addAndGet(durationNanos);
         }
         
-        return requestBody;
+        /**
+         * 记录发送结果，组件在本地拒绝（如等待并发许可超时）时只归还许可，不计为成功或失败
+         *
+         * @param result 消息发送结果，发送异常时为null
+         */
+        void complete(WeChatMessageResult result) {
+            if (result != null && WeChatErrorCode.isRejected(result.getErrCode())) {
+                breaker.release(permit);
+            } else {
+                breaker.onResult(permit, exchangeNanos.get(), isBreakerFailure(result));
+            }
+        }
     }
 }
\ No newline at end of file
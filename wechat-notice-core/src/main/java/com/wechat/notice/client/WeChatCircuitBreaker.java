@@ -0,0 +1,319 @@
+package com.wechat.notice.client;
+
+import com.wechat.notice.config.WeChatNoticeProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 应用级熔断器（无锁）
+ * 关闭状态下统计最近circuitBreakerWindowSize次发送，错误率或慢调用比例达到阈值时打开；
+ * 打开期间直接拒绝发送，circuitBreakerOpenDuration后进入半开状态，只放行circuitBreakerHalfOpenCalls个探测请求，
+ * 全部成功则关闭，任一失败或过慢则重新打开。
+ * 状态与统计窗口同属一个不可变阶段对象，状态切换通过CAS替换整个阶段，旧阶段的迟到结果不会影响新阶段
+ *
+ * @author fyf
+ */
+@Slf4j
+public final class WeChatCircuitBreaker {
+    
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+        /**
+         * 关闭，正常发送
+         */
+        CLOSED,
+        
+        /**
+         * 打开，直接拒绝发送
+         */
+        OPEN,
+        
+        /**
+         * 半开，只放行有限个探测请求
+         */
+        HALF_OPEN
+    }
+    
+    /**
+     * 窗口槽位：成功
+     */
+    private static final int OUTCOME_SUCCESS = 1;
+    
+    /**
+     * 窗口槽位：失败标记位
+     */
+    private static final int OUTCOME_FAILURE = 2;
+    
+    /**
+     * 窗口槽位：慢调用标记位
+     */
+    private static final int OUTCOME_SLOW = 4;
+    
+    /**
+     * 熔断器名称，用于日志
+     */
+    private final String name;
+    
+    /**
+     * 统计窗口大小
+     */
+    private final int windowSize;
+    
+    /**
+     * 开始判断前窗口内至少需要的调用次数
+     */
+    private final int minimumCalls;
+    
+    /**
+     * 错误率阈值
+     */
+    private final double failureRateThreshold;
+    
+    /**
+     * 慢调用耗时阈值（纳秒）
+     */
+    private final long slowCallNanos;
+    
+    /**
+     * 慢调用比例阈值
+     */
+    private final double slowCallRateThreshold;
+    
+    /**
+     * 打开状态持续时间（纳秒）
+     */
+    private final long openNanos;
+    
+    /**
+     * 半开状态放行的探测请求数
+     */
+    private final int halfOpenCalls;
+    
+    /**
+     * 当前阶段
+     */
+    private final AtomicReference<Phase> phase;
+    
+    /**
+     * 构造方法
+     *
+     * @param name 熔断器名称，用于日志
+     * @param properties 微信通知配置属性
+     */
+    public WeChatCircuitBreaker(String name, WeChatNoticeProperties properties) {
+        WeChatNoticeProperties.Api api = properties.getApi();
+        this.name = name;
+        this.windowSize = Math.max(1, api.getCircuitBreakerWindowSize());
+        this.minimumCalls = Math.max(1, Math.min(api.getCircuitBreakerMinimumCalls(), windowSize));
+        this.failureRateThreshold = api.getCircuitBreakerFailureRate();
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(api.getCircuitBreakerSlowCallDuration(), 1));
+        this.slowCallRateThreshold = api.getCircuitBreakerSlowCallRate();
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(api.getCircuitBreakerOpenDuration(), 0));
+        this.halfOpenCalls = Math.max(1, api.getCircuitBreakerHalfOpenCalls());
+        this.phase = new AtomicReference<>(Phase.closed(windowSize));
+    }
+    
+    /**
+     * 获取当前状态
+     * 打开时间已到但尚未有请求进入时仍返回OPEN
+     *
+     * @return 熔断器状态
+     */
+    public State getState() {
+        return phase.get().state;
+    }
+    
+    /**
+     * 申请发送许可
+     *
+     * @return 许可，被拒绝时返回null；发送结束后必须调用onResult，请求未发出时调用release
+     */
+    Phase tryAcquire() {
+        while (true) {
+            Phase current = phase.get();
+            if (current.state == State.CLOSED) {
+                return current;
+            }
+            long now = System.nanoTime();
+            if (current.state == State.OPEN) {
+                if (now - current.since < openNanos) {
+                    return null;
+                }
+                Phase halfOpen = Phase.halfOpen(now, halfOpenCalls);
+                if (phase.compareAndSet(current, halfOpen)) {
+                    log.info("熔断器进入半开状态，放行探测请求: name={}, probes={}", name, halfOpenCalls);
+                }
+                continue;
+            }
+            
+            if (current.permits.getAndUpdate(permits -> permits > 0 ? permits - 1 : 0) > 0) {
+                return current;
+            }
+            // 探测请求长时间未返回结果时重新放行，避免停留在半开状态
+            if (now - current.since >= openNanos
+                    && phase.compareAndSet(current, Phase.halfOpen(now, halfOpenCalls))) {
+                continue;
+            }
+            return null;
+        }
+    }
+    
+    /**
+     * 记录一次发送结果
+     *
+     * @param permit tryAcquire返回的许可
+     * @param durationNanos 发送耗时（纳秒）
+     * @param failure 是否失败
+     */
+    void onResult(Phase permit, long durationNanos, boolean failure) {
+        boolean slow = durationNanos >= slowCallNanos;
+        if (permit.state == State.CLOSED) {
+            int outcome = OUTCOME_SUCCESS | (failure ? OUTCOME_FAILURE : 0) | (slow ? OUTCOME_SLOW : 0);
+            if (permit.record(outcome) && permit == phase.get()) {
+                evaluate(permit);
+            }
+        } else if (permit.state == State.HALF_OPEN) {
+            if (failure || slow) {
+                if (phase.compareAndSet(permit, Phase.open(System.nanoTime()))) {
+                    log.warn("熔断器探测失败，重新打开: name={}, slow={}", name, slow);
+                }
+            } else if (permit.successes.incrementAndGet() >= halfOpenCalls
+                    && phase.compareAndSet(permit, Phase.closed(windowSize))) {
+                log.info("熔断器探测成功，恢复发送: name={}", name);
+            }
+        }
+    }
+    
+    /**
+     * 归还许可而不记录结果，用于组件在本地拒绝、请求未到达企业微信的情况
+     * 半开状态下归还探测许可，熔断器不会在没有请求到达企业微信时关闭
+     *
+     * @param permit tryAcquire返回的许可
+     */
+    void release(Phase permit) {
+        if (permit.state == State.HALF_OPEN && permit == phase.get()) {
+            permit.permits.incrementAndGet();
+        }
+    }
+    
+    private void evaluate(Phase closed) {
+        int calls = closed.calls.get();
+        if (calls < minimumCalls) {
+            return;
+        }
+        double failureRate = (double) closed.failures.get() / calls;
+        double slowCallRate = (double) closed.slowCalls.get() / calls;
+        if ((failureRate >= failureRateThreshold || slowCallRate >= slowCallRateThreshold)
+                && phase.compareAndSet(closed, Phase.open(System.nanoTime()))) {
+            log.warn("熔断器打开，暂停发送: name={}, calls={}, failureRate={}, slowCallRate={}",
+                name, calls, String.format("%.2f", failureRate), String.format("%.2f", slowCallRate));
+        }
+    }
+    
+    /**
+     * 熔断器阶段
+     * 关闭阶段持有统计窗口，半开阶段持有剩余探测许可与成功次数
+     */
+    static final class Phase {
+        
+        /**
+         * 状态
+         */
+        private final State state;
+        
+        /**
+         * 进入该阶段的时刻（纳秒）
+         */
+        private final long since;
+        
+        /**
+         * 最近调用结果的环形窗口，0表示空槽位
+         */
+        private final AtomicIntegerArray window;
+        
+        /**
+         * 窗口写入位置
+         */
+        private final AtomicLong cursor;
+        
+        /**
+         * 窗口内调用次数
+         */
+        private final AtomicInteger calls;
+        
+        /**
+         * 窗口内失败次数
+         */
+        private final AtomicInteger failures;
+        
+        /**
+         * 窗口内慢调用次数
+         */
+        private final AtomicInteger slowCalls;
+        
+        /**
+         * 半开状态剩余的探测许可
+         */
+        private final AtomicInteger permits;
+        
+        /**
+         * 半开状态已成功的探测次数
+         */
+        private final AtomicInteger successes;
+        
+        private Phase(State state, long since, int windowSize, int permits) {
+            this.state = state;
+            this.since = since;
+            boolean closed = state == State.CLOSED;
+            this.window = closed ? new AtomicIntegerArray(windowSize) : null;
+            this.cursor = closed ? new AtomicLong() : null;
+            this.calls = closed ? new AtomicInteger() : null;
+            this.failures = closed ? new AtomicInteger() : null;
+            this.slowCalls = closed ? new AtomicInteger() : null;
+            this.permits = new AtomicInteger(permits);
+            this.successes = new AtomicInteger();
+        }
+        
+        static Phase closed(int windowSize) {
+            return new Phase(State.CLOSED, System.nanoTime(), windowSize, 0);
+        }
+        
+        static Phase open(long now) {
+            return new Phase(State.OPEN, now, 0, 0);
+        }
+        
+        static Phase halfOpen(long now, int permits) {
+            return new Phase(State.HALF_OPEN, now, 0, permits);
+        }
+        
+        /**
+         * 写入窗口并增量更新计数，覆盖的旧结果同时从计数中扣除
+         *
+         * @return 本次结果是否为失败或慢调用，只有此时才需要判断是否打开
+         */
+        private boolean record(int outcome) {
+            int index = (int) (cursor.getAndIncrement() % window.length());
+            int previous = window.getAndSet(index, outcome);
+            if (previous == 0) {
+                calls.incrementAndGet();
+            }
+            adjust(failures, previous, outcome, OUTCOME_FAILURE);
+            adjust(slowCalls, previous, outcome, OUTCOME_SLOW);
+            return (outcome & (OUTCOME_FAILURE | OUTCOME_SLOW)) != 0;
+        }
+        
+        private static void adjust(AtomicInteger counter, int previous, int outcome, int flag) {
+            int delta = ((outcome & flag) != 0 ? 1 : 0) - ((previous & flag) != 0 ? 1 : 0);
+            if (delta != 0) {
+                counter.addAndGet(delta);
+            }
+        }
+    }
+}
\ No newline at end of file
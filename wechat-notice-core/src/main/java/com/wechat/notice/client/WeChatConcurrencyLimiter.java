@@ -0,0 +1,232 @@
+package com.wechat.notice.client;
+
+import com.wechat.notice.config.WeChatNoticeProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 自适应并发限制器（AIMD）
+ * 限制同时进行的message/send请求数，上限随企业微信的实际承载能力变化：
+ * 响应正常且上限已被用满一半以上时，每个响应使上限增加1/上限，约每轮往返加1；
+ * 出现限流错误码、网络异常或响应耗时超过基准耗时的rttTolerance倍时，上限乘以backoffRatio。
+ * 同一轮往返内的多个过载信号只降低一次，避免上限瞬间降到最小值。
+ * 达到上限的请求按先后顺序排队，有请求完成或上限增加时放行
+ *
+ * @author fyf
+ */
+@Slf4j
+public final class WeChatConcurrencyLimiter {
+    
+    /**
+     * 基准耗时向更高耗时靠拢的权重，网络环境长期变化后基准随之调整
+     */
+    private static final double BASELINE_DRIFT = 0.01;
+    
+    /**
+     * 判断过慢时基准耗时的下限（纳秒），避免耗时极短时的正常抖动被视为过载
+     */
+    private static final long MIN_BASELINE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    
+    /**
+     * 上限的最小值
+     */
+    private final int minLimit;
+    
+    /**
+     * 上限的最大值
+     */
+    private final int maxLimit;
+    
+    /**
+     * 过载时上限乘以的比例
+     */
+    private final double backoffRatio;
+    
+    /**
+     * 视为过载的耗时倍数
+     */
+    private final double rttTolerance;
+    
+    /**
+     * 进行中的请求数
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    /**
+     * 等待发送许可的请求
+     */
+    private final Queue<CompletableFuture<Permit>> waiters = new ConcurrentLinkedQueue<>();
+    
+    /**
+     * 当前上限，只在持有本对象监视器时修改
+     */
+    private volatile double limit;
+    
+    /**
+     * 基准耗时（纳秒），即近期最低的响应耗时，尚无样本时为0
+     */
+    private volatile long baselineRttNanos;
+    
+    /**
+     * 最近一次降低上限的时刻（纳秒）
+     */
+    private long lastDecreaseNanos;
+    
+    /**
+     * 构造方法
+     *
+     * @param properties 微信通知配置属性
+     */
+    public WeChatConcurrencyLimiter(WeChatNoticeProperties properties) {
+        WeChatNoticeProperties.Api api = properties.getApi();
+        this.minLimit = Math.max(1, api.getConcurrencyLimitMin());
+        this.maxLimit = Math.max(minLimit, api.getConcurrencyLimitMax());
+        this.backoffRatio = Math.min(Math.max(api.getConcurrencyLimitBackoffRatio(), 0.1), 1.0);
+        this.rttTolerance = Math.max(api.getConcurrencyLimitRttTolerance(), 1.0);
+        this.limit = Math.min(Math.max(api.getConcurrencyLimitInitial(), minLimit), maxLimit);
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+    
+    /**
+     * 获取当前并发上限
+     *
+     * @return 并发上限
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+    
+    /**
+     * 获取进行中的请求数
+     *
+     * @return 进行中的请求数
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    /**
+     * 获取等待发送许可的请求数
+     *
+     * @return 等待中的请求数
+     */
+    public int getWaiting() {
+        return waiters.size();
+    }
+    
+    /**
+     * 申请发送许可
+     * 未达到上限时立即完成，否则排队等待；放弃等待时调用cancel
+     *
+     * @return 发送许可，请求结束后必须调用release
+     */
+    CompletableFuture<Permit> acquire() {
+        if (tryIncrement()) {
+            return CompletableFuture.completedFuture(new Permit());
+        }
+        CompletableFuture<Permit> waiter = new CompletableFuture<>();
+        waiters.add(waiter);
+        // 入队前可能已有请求完成，重新检查一次，避免无人唤醒
+        drain();
+        return waiter;
+    }
+    
+    /**
+     * 放弃等待，等待期间已获得许可时归还名额
+     *
+     * @param waiter acquire返回的Future
+     */
+    void cancel(CompletableFuture<Permit> waiter) {
+        if (!withdraw(waiter)) {
+            inFlight.decrementAndGet();
+            drain();
+        }
+    }
+    
+    /**
+     * 撤回排队中的等待，已获得的许可仍归等待方所有
+     * 用于许可会被后续回调消费的异步场景，回调负责归还
+     *
+     * @param waiter acquire返回的Future
+     * @return 是否在获得许可前撤回
+     */
+    boolean withdraw(CompletableFuture<Permit> waiter) {
+        waiters.remove(waiter);
+        return waiter.cancel(false);
+    }
+    
+    /**
+     * 释放许可并根据本次结果调整上限
+     *
+     * @param permit 发送许可
+     * @param overloaded 是否出现限流错误码或网络异常
+     */
+    void release(Permit permit, boolean overloaded) {
+        long now = System.nanoTime();
+        adjust(permit.start, now - permit.start, overloaded);
+        inFlight.decrementAndGet();
+        drain();
+    }
+    
+    private synchronized void adjust(long start, long rttNanos, boolean overloaded) {
+        long baseline = baselineRttNanos;
+        boolean slow = baseline > 0 && rttNanos > Math.max(baseline, MIN_BASELINE_NANOS) * rttTolerance;
+        if (!overloaded) {
+            baselineRttNanos = baseline == 0 || rttNanos < baseline ? rttNanos
+                : baseline + (long) ((rttNanos - baseline) * BASELINE_DRIFT);
+        }
+        
+        double current = limit;
+        if (overloaded || slow) {
+            // 降低上限之前发出的请求反映的是旧上限下的状况，不再重复降低
+            if (start - lastDecreaseNanos > 0) {
+                lastDecreaseNanos = System.nanoTime();
+                limit = Math.max(minLimit, current * backoffRatio);
+                log.debug("发送并发上限降低: limit={}, overloaded={}, rttMillis={}", (int) limit, overloaded,
+                    rttNanos / 1_000_000);
+            }
+        } else if (inFlight.get() * 2 >= current && current < maxLimit) {
+            limit = Math.min(maxLimit, current + 1 / current);
+        }
+    }
+    
+    /**
+     * 按上限放行排队的请求，已被取消的等待者归还名额
+     */
+    private void drain() {
+        while (!waiters.isEmpty() && tryIncrement()) {
+            CompletableFuture<Permit> waiter = waiters.poll();
+            if (waiter == null || !waiter.complete(new Permit())) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+    
+    private boolean tryIncrement() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * 发送许可，记录请求开始时刻
+     */
+    static final class Permit {
+        
+        /**
+         * 开始时刻（纳秒）
+         */
+        private final long start = System.nanoTime();
+    }
+}
\ No newline at end of file
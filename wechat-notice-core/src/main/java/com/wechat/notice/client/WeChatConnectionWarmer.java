@@ -0,0 +1,202 @@
+package com.wechat.notice.client;
+
+import com.wechat.notice.client.transport.WeChatEndpointRouter;
+import com.wechat.notice.client.transport.WeChatHttpRequest;
+import com.wechat.notice.client.transport.WeChatTransport;
+import com.wechat.notice.config.WeChatNoticeProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 消息发送连接预热器
+ * 启动时并发发出connectionWarmUpSize个请求，使连接池提前完成DNS解析、TCP与TLS建连；
+ * 之后按connectionKeepAliveInterval定期重复，保持连接不被空闲回收，到期轮换的连接也在后台重建。
+ * 配置多个baseUrls时逐个地址预热，请求绕过地址路由，不影响路由器对各地址的统计。
+ * 预热请求为不带参数的gettoken，企业微信直接返回参数错误，不消耗任何应用的调用额度
+ *
+ * @author fyf
+ */
+@Slf4j
+public class WeChatConnectionWarmer implements AutoCloseable {
+    
+    /**
+     * 预热请求路径，代理服务器也需要转发该接口
+     */
+    private static final String WARM_UP_PATH = "/cgi-bin/gettoken";
+    
+    /**
+     * 不经过地址路由的消息发送传输层
+     */
+    private final WeChatTransport transport;
+    
+    /**
+     * 需要预热的全部API地址
+     */
+    private final List<String> baseUrls;
+    
+    /**
+     * 微信通知配置属性
+     */
+    private final WeChatNoticeProperties properties;
+    
+    /**
+     * 预热连接数
+     */
+    private final int size;
+    
+    /**
+     * 同时发出同步请求的线程池，每个线程占用一条连接
+     */
+    private final ExecutorService executor;
+    
+    /**
+     * 保活定时器
+     */
+    private final ScheduledExecutorService keepAliveScheduler;
+    
+    /**
+     * 是否已启动
+     */
+    private final AtomicBoolean started = new AtomicBoolean();
+    
+    /**
+     * 构造方法
+     *
+     * @param transport 消息发送传输层
+     * @param properties 微信通知配置属性
+     */
+    public WeChatConnectionWarmer(WeChatTransport transport, WeChatNoticeProperties properties) {
+        this.transport = WeChatEndpointRouter.unrouted(transport);
+        this.properties = properties;
+        this.baseUrls = WeChatEndpointRouter.endpointUrls(properties.getApi());
+        this.size = Math.max(1, properties.getApi().getConnectionWarmUpSize());
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(syncRequestCount(), runnable -> {
+            Thread thread = new Thread(runnable, "wechat-connection-warmer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.keepAliveScheduler = WeChatTokenManager.createRefreshScheduler("wechat-connection-keepalive-", 1);
+    }
+    
+    /**
+     * 预热连接并开始定期保活
+     * 首轮预热同步完成，最多等待一次请求的连接与读取超时之和；预热失败不影响启动
+     */
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        int success = warmUp();
+        log.info("连接预热完成: size={}, endpoints={}, success={}, cost={}ms", size, baseUrls.size(), success,
+            System.currentTimeMillis() - startTime);
+        
+        long interval = properties.getApi().getConnectionKeepAliveInterval();
+        if (interval > 0) {
+            keepAliveScheduler.scheduleWithFixedDelay(this::keepAlive, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * 同时发出一轮预热请求
+     * 每个地址的同步客户端size个请求并发进行，连接池因此为每个地址建立size条连接；异步客户端已启动或开启
+     * connectionWarmUpAsync时同样为异步连接池发出请求。HTTP/2传输层则在少量连接上多路复用
+     *
+     * @return 成功收到响应的同步请求数
+     */
+    public int warmUp() {
+        WeChatNoticeProperties.Api api = properties.getApi();
+        boolean warmAsync = api.isConnectionWarmUpAsync() || transport.isAsyncStarted();
+        List<CompletableFuture<?>> syncRequests = new ArrayList<>(syncRequestCount());
+        List<CompletableFuture<?>> asyncRequests = new ArrayList<>();
+        try {
+            for (String baseUrl : baseUrls) {
+                WeChatHttpRequest request = WeChatRequestConfigs.requestBuilder(api)
+                    .method(WeChatHttpRequest.GET)
+                    .url(baseUrl + WARM_UP_PATH)
+                    .build();
+                for (int i = 0; i < size; i++) {
+                    syncRequests.add(CompletableFuture.runAsync(() -> {
+                        try {
+                            transport.execute(request);
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }, executor));
+                    if (warmAsync) {
+                        asyncRequests.add(transport.executeAsync(request));
+                    }
+                }
+            }
+        } catch (RejectedExecutionException e) {
+            // 已关闭
+            return 0;
+        }
+        
+        long timeout = (long) api.getConnectTimeout() + api.getConnectionRequestTimeout() + api.getReadTimeout();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(timeout, 1));
+        int success = 0;
+        for (CompletableFuture<?> future : syncRequests) {
+            if (await(future, deadline)) {
+                success++;
+            }
+        }
+        for (CompletableFuture<?> future : asyncRequests) {
+            await(future, deadline);
+        }
+        return success;
+    }
+    
+    private void keepAlive() {
+        try {
+            int success = warmUp();
+            if (success < syncRequestCount()) {
+                log.debug("连接保活请求部分失败: size={}, endpoints={}, success={}", size, baseUrls.size(), success);
+            }
+        } catch (RuntimeException e) {
+            log.warn("连接保活失败", e);
+        }
+    }
+    
+    private int syncRequestCount() {
+        return size * baseUrls.size();
+    }
+    
+    private static boolean await(CompletableFuture<?> future, long deadline) {
+        try {
+            future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (ExecutionException e) {
+            log.debug("预热请求失败: {}", e.getCause().getMessage());
+            return false;
+        } catch (TimeoutException e) {
+            log.debug("预热请求超时");
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    /**
+     * 停止保活，不中断进行中的请求
+     */
+    @Override
+    public void close() {
+        keepAliveScheduler.shutdownNow();
+        executor.shutdown();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.wechat.notice.client;
+
+import com.wechat.notice.client.transport.WeChatEndpointRouter;
+import com.wechat.notice.config.WeChatNoticeProperties;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP客户端工厂
+ * 按WeChatNoticeProperties.Api创建带连接池、长连接复用和空闲连接回收的HTTP客户端，
+ * Spring Boot Starter与非Spring环境使用同一套配置
+ *
+ * @author fyf
+ */
+public final class WeChatHttpClients {
+    
+    /**
+     * 连接最长存活时间（秒）
+     */
+    private static final long CONNECTION_TIME_TO_LIVE_SECONDS = 30;
+    
+    /**
+     * 空闲连接回收时间（秒）
+     */
+    private static final long IDLE_EVICTION_SECONDS = 30;
+    
+    private WeChatHttpClients() {
+    }
+    
+    /**
+     * 创建消息发送使用的HTTP客户端
+     * 连接池大小由maxConnections与maxConnectionsPerRoute决定
+     *
+     * @param properties 微信通知配置属性
+     * @return HTTP客户端
+     */
+    public static CloseableHttpClient createHttpClient(WeChatNoticeProperties properties) {
+        WeChatNoticeProperties.Api api = properties.getApi();
+        return createPooledClient(properties, api.getMaxConnections(), api.getMaxConnectionsPerRoute());
+    }
+    
+    /**
+     * 创建gettoken与票据接口专用的HTTP客户端
+     * 与消息发送使用的连接池隔离，发送高峰占满连接时gettoken无需排队
+     *
+     * @param properties 微信通知配置属性
+     * @return HTTP客户端
+     */
+    public static CloseableHttpClient createTokenHttpClient(WeChatNoticeProperties properties) {
+        int maxConnections = properties.getApi().getTokenMaxConnections();
+        return createPooledClient(properties, maxConnections, maxConnections);
+    }
+    
+    /**
+     * 创建并启动异步发送使用的HTTP客户端
+     *
+     * @param properties 微信通知配置属性
+     * @return 已启动的异步HTTP客户端
+     */
+    public static CloseableHttpAsyncClient createAsyncHttpClient(WeChatNoticeProperties properties) {
+        WeChatNoticeProperties.Api api = properties.getApi();
+        CloseableHttpAsyncClient httpClient = HttpAsyncClients.custom()
+                .setDefaultRequestConfig(WeChatRequestConfigs.create(api))
+                .setMaxConnTotal(poolSize(api, api.getMaxConnections(), api.getMaxConnectionsPerRoute()))
+                .setMaxConnPerRoute(Math.max(api.getMaxConnectionsPerRoute(), 1))
+                .build();
+        httpClient.start();
+        return httpClient;
+    }
+    
+    private static CloseableHttpClient createPooledClient(WeChatNoticeProperties properties, int maxTotal,
+                                                          int maxPerRoute) {
+        int total = poolSize(properties.getApi(), maxTotal, maxPerRoute);
+        return HttpClients.custom()
+                .setDefaultRequestConfig(WeChatRequestConfigs.create(properties.getApi()))
+                .setConnectionTimeToLive(CONNECTION_TIME_TO_LIVE_SECONDS, TimeUnit.SECONDS)
+                .setMaxConnTotal(total)
+                .setMaxConnPerRoute(Math.min(Math.max(maxPerRoute, 1), total))
+                .evictExpiredConnections()
+                .evictIdleConnections(IDLE_EVICTION_SECONDS, TimeUnit.SECONDS)
+                .build();
+    }
+    
+    /**
+     * 计算连接池总连接数
+     * 配置多个API地址时，每个地址是独立的路由，总连接数至少能容纳每个地址各自的上限，避免一个地址占满整个连接池
+     */
+    private static int poolSize(WeChatNoticeProperties.Api api, int maxTotal, int maxPerRoute) {
+        int endpoints = WeChatEndpointRouter.endpointUrls(api).size();
+        return Math.max(Math.max(maxTotal, 1), Math.max(maxPerRoute, 1) * endpoints);
+    }
+}
\ No newline at end of file
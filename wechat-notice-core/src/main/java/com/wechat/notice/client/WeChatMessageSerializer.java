@@ -0,0 +1,220 @@
+package com.wechat.notice.client;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.wechat.notice.exception.WeChatNoticeException;
+import com.wechat.notice.message.WeChatMessage;
+import com.wechat.notice.message.body.MediaBody;
+import com.wechat.notice.message.body.TextBody;
+import com.wechat.notice.message.body.TextCardBody;
+import com.wechat.notice.message.body.VideoBody;
+import com.wechat.notice.message.enums.MessageType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * message/send请求体序列化器
+ * 按MessageType序号索引各类型的消息体序列化方式，消息体使用强类型对象和预先构建的ObjectWriter写出；
+ * news、mpnews与template_card结构较复杂，由扩展字段中同名键提供消息体，缺少时拒绝序列化
+ *
+ * @author fyf
+ */
+public class WeChatMessageSerializer {
+    
+    /**
+     * JSON序列化工具，用于创建生成器和写出扩展字段
+     */
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * 消息体序列化表，下标为MessageType序号，为null表示消息体仅来自扩展字段
+     */
+    private final BodyWriter[] bodyWriters = new BodyWriter[MessageType.values().length];
+    
+    /**
+     * 构造方法
+     *
+     * @param objectMapper JSON序列化工具
+     */
+    public WeChatMessageSerializer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        register(MessageType.TEXT, TextBody.class, message -> new TextBody(message.getContent()));
+        register(MessageType.MARKDOWN, TextBody.class, message -> new TextBody(message.getContent()));
+        register(MessageType.IMAGE, MediaBody.class, message -> new MediaBody(message.getMediaId()));
+        register(MessageType.VOICE, MediaBody.class, message -> new MediaBody(message.getMediaId()));
+        register(MessageType.FILE, MediaBody.class, message -> new MediaBody(message.getMediaId()));
+        register(MessageType.VIDEO, VideoBody.class,
+                message -> new VideoBody(message.getMediaId(), message.getTitle(), message.getDescription()));
+        register(MessageType.TEXTCARD, TextCardBody.class,
+                message -> new TextCardBody(message.getTitle(), message.getDescription(),
+                        message.getUrl(), message.getBtnTxt()));
+    }
+    
+    /**
+     * 获取创建生成器使用的JSON工厂
+     *
+     * @return JSON工厂
+     */
+    public JsonFactory getFactory() {
+        return objectMapper.getFactory();
+    }
+    
+    /**
+     * 序列化为UTF-8字节缓冲区
+     * 请求直接引用缓冲区内部数组及有效长度，不再复制出精确长度的数组
+     *
+     * @param message 微信消息对象
+     * @return 请求体缓冲区
+     * @throws IOException 序列化失败时抛出
+     */
+    public BodyBuffer serialize(WeChatMessage message) throws IOException {
+        BodyBuffer buffer = new BodyBuffer();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer, JsonEncoding.UTF8)) {
+            write(generator, message);
+        }
+        return buffer;
+    }
+    
+    /**
+     * 序列化为精确长度的UTF-8字节
+     *
+     * @param message 微信消息对象
+     * @return 请求体
+     * @throws IOException 序列化失败时抛出
+     */
+    public byte[] toByteArray(WeChatMessage message) throws IOException {
+        return serialize(message).toByteArray();
+    }
+    
+    /**
+     * 检查消息体是否存在
+     * 没有强类型消息体的类型（news、mpnews、template_card）必须在扩展字段中提供同名键，否则企业微信会拒绝请求
+     *
+     * @param message 微信消息对象
+     * @throws WeChatNoticeException 缺少消息体时抛出
+     */
+    public void checkBody(WeChatMessage message) {
+        MessageType type = MessageType.of(message.getMsgType());
+        if (type != null && bodyWriters[type.ordinal()] == null
+                && (message.getExtra() == null || !message.getExtra().containsKey(type.getCode()))) {
+            throw new WeChatNoticeException(type.getCode() + "消息缺少消息体，需在extra中提供" + type.getCode());
+        }
+    }
+    
+    /**
+     * 按message/send接口格式写出消息
+     * 扩展字段与基础字段或消息体同名时以扩展字段为准
+     *
+     * @param generator JSON生成器
+     * @param message 微信消息对象
+     * @throws IOException 写出失败时抛出
+     * @throws WeChatNoticeException 缺少消息体时抛出
+     */
+    public void write(JsonGenerator generator, WeChatMessage message) throws IOException {
+        Map<String, Object> extra = message.getExtra() != null ? message.getExtra() : Collections.emptyMap();
+        String msgType = message.getMsgType();
+        
+        generator.writeStartObject();
+        
+        // 基础字段
+        writeField(generator, extra, "touser", message.getToUser());
+        writeField(generator, extra, "toparty", message.getToParty());
+        writeField(generator, extra, "totag", message.getToTag());
+        writeField(generator, extra, "msgtype", msgType);
+        if (!extra.containsKey("agentid")) {
+            generator.writeFieldName("agentid");
+            if (message.getAgentId() != null) {
+                generator.writeNumber(message.getAgentId());
+            } else {
+                generator.writeNull();
+            }
+        }
+        
+        // 根据消息类型写出消息体
+        MessageType type = MessageType.of(msgType);
+        BodyWriter bodyWriter = type != null ? bodyWriters[type.ordinal()] : null;
+        if (type != null && bodyWriter == null && !extra.containsKey(msgType)) {
+            throw new WeChatNoticeException(msgType + "消息缺少消息体，需在extra中提供" + msgType);
+        }
+        if (bodyWriter != null && !extra.containsKey(msgType)) {
+            generator.writeFieldName(msgType);
+            bodyWriter.writer.writeValue(generator, bodyWriter.factory.apply(message));
+        }
+        
+        // 处理扩展字段
+        for (Map.Entry<String, Object> entry : extra.entrySet()) {
+            generator.writeFieldName(entry.getKey());
+            generator.writeObject(entry.getValue());
+        }
+        
+        generator.writeEndObject();
+    }
+    
+    private <T> void register(MessageType type, Class<T> bodyType, Function<WeChatMessage, T> factory) {
+        // 消息体只是请求的一部分，不在每次写出后刷新输出流
+        ObjectWriter writer = objectMapper.writerFor(bodyType)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        bodyWriters[type.ordinal()] = new BodyWriter(writer, factory);
+    }
+    
+    private static void writeField(JsonGenerator generator, Map<String, Object> extra, String name, String value)
+            throws IOException {
+        if (!extra.containsKey(name)) {
+            generator.writeStringField(name, value);
+        }
+    }
+    
+    /**
+     * 单个消息类型的消息体写出方式
+     */
+    private static final class BodyWriter {
+        
+        /**
+         * 预先构建的消息体ObjectWriter
+         */
+        private final ObjectWriter writer;
+        
+        /**
+         * 从消息对象构建消息体
+         */
+        private final Function<WeChatMessage, ?> factory;
+        
+        private BodyWriter(ObjectWriter writer, Function<WeChatMessage, ?> factory) {
+            this.writer = writer;
+            this.factory = factory;
+        }
+    }
+    
+    /**
+     * 请求体缓冲区
+     * 公开内部数组，避免ByteArrayOutputStream.toByteArray()的整段复制
+     */
+    public static final class BodyBuffer extends ByteArrayOutputStream {
+        
+        /**
+         * 初始容量，覆盖常见消息的请求体大小
+         */
+        private static final int INITIAL_CAPACITY = 512;
+        
+        BodyBuffer() {
+            super(INITIAL_CAPACITY);
+        }
+        
+        /**
+         * 获取内部数组，仅前size()个字节有效
+         *
+         * @return 内部数组
+         */
+        public byte[] array() {
+            return buf;
+        }
+    }
+}
\ No newline at end of file
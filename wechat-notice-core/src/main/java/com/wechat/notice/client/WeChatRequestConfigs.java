@@ -0,0 +1,66 @@
+package com.wechat.notice.client;
+
+import com.wechat.notice.client.transport.WeChatHttpRequest;
+import com.wechat.notice.config.WeChatNoticeProperties;
+import org.apache.http.client.config.RequestConfig;
+
+/**
+ * 请求超时配置工具类
+ * 将connectTimeout、readTimeout与connectionRequestTimeout转换为HTTP客户端的默认RequestConfig，
+ * 以及每个请求携带的超时，传入未设置超时的客户端时同样生效
+ *
+ * @author fyf
+ */
+public final class WeChatRequestConfigs {
+    
+    private WeChatRequestConfigs() {
+    }
+    
+    /**
+     * 按配置创建请求超时配置
+     *
+     * @param api API配置
+     * @return 请求超时配置
+     */
+    public static RequestConfig create(WeChatNoticeProperties.Api api) {
+        return RequestConfig.custom()
+                .setConnectTimeout(api.getConnectTimeout())
+                .setSocketTimeout(api.getReadTimeout())
+                .setConnectionRequestTimeout(api.getConnectionRequestTimeout())
+                .build();
+    }
+    
+    /**
+     * 创建已按配置设置超时的请求构建器
+     *
+     * @param api API配置
+     * @return 请求构建器
+     */
+    public static WeChatHttpRequest.WeChatHttpRequestBuilder requestBuilder(WeChatNoticeProperties.Api api) {
+        return WeChatHttpRequest.builder()
+                .connectTimeout(api.getConnectTimeout())
+                .readTimeout(api.getReadTimeout())
+                .connectionRequestTimeout(api.getConnectionRequestTimeout());
+    }
+    
+    /**
+     * 创建按配置和剩余时间设置超时的请求构建器，各项超时不超过剩余时间
+     *
+     * @param api API配置
+     * @param remainingMillis 剩余时间（毫秒）
+     * @return 请求构建器
+     */
+    static WeChatHttpRequest.WeChatHttpRequestBuilder requestBuilder(WeChatNoticeProperties.Api api,
+                                                                     long remainingMillis) {
+        return WeChatHttpRequest.builder()
+                .connectTimeout(clamp(api.getConnectTimeout(), remainingMillis))
+                .readTimeout(clamp(api.getReadTimeout(), remainingMillis))
+                .connectionRequestTimeout(clamp(api.getConnectionRequestTimeout(), remainingMillis));
+    }
+    
+    private static int clamp(int timeoutMillis, long remainingMillis) {
+        // 0表示不限制，此时以剩余时间为准
+        long bound = Math.max(1, remainingMillis);
+        return timeoutMillis > 0 && timeoutMillis < bound ? timeoutMillis : (int) Math.min(bound, Integer.MAX_VALUE);
+    }
+}
\ No newline at end of file
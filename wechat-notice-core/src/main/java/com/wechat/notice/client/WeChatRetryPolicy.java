@@ -0,0 +1,175 @@
+package com.wechat.notice.client;
+
+import com.wechat.notice.config.WeChatNoticeProperties;
+import com.wechat.notice.exception.WeChatNoticeException;
+import com.wechat.notice.message.WeChatMessageResult;
+import com.wechat.notice.message.enums.WeChatErrorCode;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.conn.ConnectTimeoutException;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 消息发送重试策略
+ * 指数退避加完全抖动：第n次重试前等待[0, min(retryMaxInterval, retryInitialInterval * 2^(n-1))]之间的随机时间；
+ * 异步发送的退避由定时器触发，等待期间不占用线程；同步发送仅在开启syncRetryEnabled时重试，通过await在退避期间阻塞调用线程
+ *
+ * @author fyf
+ */
+public class WeChatRetryPolicy {
+    
+    /**
+     * 是否启用重试
+     */
+    private final boolean enabled;
+    
+    /**
+     * 最大重试次数，不含首次发送
+     */
+    private final int maxRetries;
+    
+    /**
+     * 首次重试的退避上限（毫秒）
+     */
+    private final long initialInterval;
+    
+    /**
+     * 退避上限的最大值（毫秒）
+     */
+    private final long maxInterval;
+    
+    /**
+     * 退避定时器，由创建方负责关闭
+     */
+    private final ScheduledExecutorService timer;
+    
+    /**
+     * 构造方法
+     *
+     * @param properties 微信通知配置属性
+     * @param timer 退避定时器，未启用重试时可为null
+     */
+    public WeChatRetryPolicy(WeChatNoticeProperties properties, ScheduledExecutorService timer) {
+        WeChatNoticeProperties.Api api = properties.getApi();
+        this.enabled = api.isRetryEnabled() && api.getRetryCount() > 0;
+        this.maxRetries = Math.max(0, api.getRetryCount());
+        this.initialInterval = Math.max(1, api.getRetryInitialInterval());
+        this.maxInterval = Math.max(initialInterval, api.getRetryMaxInterval());
+        this.timer = timer;
+    }
+    
+    /**
+     * 是否启用重试
+     *
+     * @return true-启用
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * 判断发送结果是否需要重试
+     *
+     * @param attempt 已完成的发送次数，从1开始
+     * @param result 发送结果
+     * @return true-需要重试
+     */
+    public boolean shouldRetry(int attempt, WeChatMessageResult result) {
+        return enabled && attempt <= maxRetries && !result.isSuccess()
+                && WeChatErrorCode.isRetryable(result.getErrCode());
+    }
+    
+    /**
+     * 判断发送异常是否需要重试
+     * 仅重试可确定请求未发出的网络异常：连接失败、连接池等待超时、域名解析失败，
+     * 以及复用的空闲连接已被服务端关闭（NoHttpResponseException）；
+     * 读超时、响应中途断开、响应解析失败时请求可能已被企业微信处理，为避免重复发送不重试
+     *
+     * @param attempt 已完成的发送次数，从1开始
+     * @param error 发送异常
+     * @return true-需要重试
+     */
+    public boolean shouldRetry(int attempt, Throwable error) {
+        if (!enabled || attempt > maxRetries) {
+            return false;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketTimeoutException) {
+                return false;
+            }
+            if (isNotSent(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 判断异常是否表示请求未发出
+     * ConnectTimeoutException包含ConnectionPoolTimeoutException，JDK HttpClient的连接超时以ConnectException为原因
+     *
+     * @param error 异常
+     * @return true-请求未发出
+     */
+    private static boolean isNotSent(Throwable error) {
+        return error instanceof ConnectException
+                || error instanceof NoRouteToHostException
+                || error instanceof UnknownHostException
+                || error instanceof ConnectTimeoutException
+                || error instanceof NoHttpResponseException;
+    }
+    
+    /**
+     * 计算第attempt次发送失败后的退避时间
+     *
+     * @param attempt 已完成的发送次数，从1开始
+     * @return 退避时间（毫秒）
+     */
+    public long backoffMillis(int attempt) {
+        int shift = Math.min(attempt - 1, 30);
+        long ceiling = Math.min(maxInterval, initialInterval << shift);
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+    
+    /**
+     * 在定时器上等待退避时间
+     *
+     * @param delayMillis 退避时间（毫秒）
+     * @return 退避结束时完成的Future
+     */
+    public CompletableFuture<Void> delay(long delayMillis) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            timer.schedule(() -> future.complete(null), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new WeChatNoticeException("重试定时器已关闭", e));
+        }
+        return future;
+    }
+    
+    /**
+     * 同步等待退避时间，用于同步发送
+     * 调用线程阻塞至退避结束
+     *
+     * @param delayMillis 退避时间（毫秒）
+     */
+    public void await(long delayMillis) {
+        try {
+            delay(delayMillis).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WeChatNoticeException("等待重试时被中断", e);
+        } catch (ExecutionException e) {
+            throw new WeChatNoticeException("等待重试失败", e.getCause());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.wechat.notice.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.wechat.notice.message.WeChatMessageResult;
+
+import java.io.IOException;
+
+/**
+ * message/send响应解析器
+ * 使用JsonParser逐个读取响应体中的字段，只提取errcode、errmsg、msgid与invaliduser/invalidparty/invalidtag，
+ * 其余字段直接跳过；解析缓冲区由JsonFactory按线程回收复用，不构建响应字符串和中间对象。
+ * 传输层已将响应体完整读入内存（message/send响应通常不足1KB），因此只接受字节数组
+ *
+ * @author fyf
+ */
+public class WeChatSendResponseParser {
+    
+    /**
+     * 成功响应的错误信息，避免为固定值分配字符串
+     */
+    private static final String OK = "ok";
+    
+    /**
+     * JSON工厂
+     */
+    private final JsonFactory jsonFactory;
+    
+    /**
+     * 构造方法
+     *
+     * @param jsonFactory JSON工厂
+     */
+    public WeChatSendResponseParser(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+    
+    /**
+     * 解析响应字节
+     *
+     * @param content 响应体
+     * @return 消息发送结果
+     * @throws IOException 响应格式错误时抛出
+     */
+    public WeChatMessageResult parse(byte[] content) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(content)) {
+            return parse(parser);
+        }
+    }
+    
+    private WeChatMessageResult parse(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("message/send响应不是JSON对象");
+        }
+        
+        Integer errcode = null;
+        String errmsg = null;
+        String msgid = null;
+        String invalidUser = null;
+        String invalidParty = null;
+        String invalidTag = null;
+        
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "errcode":
+                    errcode = token == JsonToken.VALUE_NULL ? null : parser.getValueAsInt();
+                    break;
+                case "errmsg":
+                    errmsg = readErrmsg(parser);
+                    break;
+                case "msgid":
+                    msgid = parser.getValueAsString();
+                    break;
+                case "invaliduser":
+                    invalidUser = parser.getValueAsString();
+                    break;
+                case "invalidparty":
+                    invalidParty = parser.getValueAsString();
+                    break;
+                case "invalidtag":
+                    invalidTag = parser.getValueAsString();
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        
+        WeChatMessageResult result = errcode != null && errcode != 0
+                ? WeChatMessageResult.failure(errcode, errmsg)
+                : WeChatMessageResult.success(msgid);
+        result.setInvalidUser(invalidUser);
+        result.setInvalidParty(invalidParty);
+        result.setInvalidTag(invalidTag);
+        return result;
+    }
+    
+    private static String readErrmsg(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING && parser.getTextLength() == 2) {
+            char[] chars = parser.getTextCharacters();
+            int offset = parser.getTextOffset();
+            if (chars[offset] == 'o' && chars[offset + 1] == 'k') {
+                return OK;
+            }
+        }
+        return parser.getValueAsString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,291 @@
+package com.wechat.notice.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wechat.notice.client.ticket.JsapiSignature;
+import com.wechat.notice.client.ticket.TicketType;
+import com.wechat.notice.client.token.AccessToken;
+import com.wechat.notice.client.token.TokenStore;
+import com.wechat.notice.client.transport.ApacheWeChatTransport;
+import com.wechat.notice.client.transport.WeChatHttpRequest;
+import com.wechat.notice.client.transport.WeChatHttpResponse;
+import com.wechat.notice.client.transport.WeChatTransport;
+import com.wechat.notice.config.WeChatAppConfig;
+import com.wechat.notice.config.WeChatNoticeProperties;
+import com.wechat.notice.exception.WeChatNoticeException;
+import com.wechat.notice.message.WeChatApiResponse;
+import com.wechat.notice.message.enums.WeChatErrorCode;
+import com.wechat.notice.util.SignatureUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.http.impl.client.CloseableHttpClient;
+
+import java.io.IOException;
+
+/**
+ * 微信JS-SDK票据管理器
+ * 缓存企业和应用的jsapi_ticket，与WeChatTokenManager共用CredentialRefresher的单飞与后台提前刷新策略
+ *
+ * @author fyf
+ */
+@Slf4j
+public class WeChatTicketManager implements AutoCloseable {
+    
+    /**
+     * 签名随机串长度
+     */
+    private static final int NONCE_LENGTH = 16;
+    
+    /**
+     * HTTP传输层
+     */
+    private final WeChatTransport transport;
+    
+    /**
+     * JSON序列化工具
+     */
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * Token管理器，提供access_token和凭证标识
+     */
+    private final WeChatTokenManager tokenManager;
+    
+    /**
+     * 微信通知配置属性
+     */
+    private final WeChatNoticeProperties properties;
+    
+    /**
+     * 票据存储，与Token管理器共用，Key为票据类型 + ":" + 凭证标识
+     */
+    private final TokenStore ticketStore;
+    
+    /**
+     * 票据刷新器，后台刷新调度器在提前刷新比例为0时不创建
+     */
+    private final CredentialRefresher refresher;
+    
+    /**
+     * 构造方法
+     *
+     * @param httpClient HTTP客户端，包装为默认的Apache传输层
+     * @param objectMapper JSON序列化工具
+     * @param tokenManager Token管理器
+     * @param properties 微信通知配置属性
+     */
+    public WeChatTicketManager(CloseableHttpClient httpClient, ObjectMapper objectMapper,
+                               WeChatTokenManager tokenManager, WeChatNoticeProperties properties) {
+        this(new ApacheWeChatTransport(httpClient), objectMapper, tokenManager, properties);
+    }
+    
+    /**
+     * 构造方法
+     *
+     * @param transport HTTP传输层
+     * @param objectMapper JSON序列化工具
+     * @param tokenManager Token管理器
+     * @param properties 微信通知配置属性
+     */
+    public WeChatTicketManager(WeChatTransport transport, ObjectMapper objectMapper,
+                               WeChatTokenManager tokenManager, WeChatNoticeProperties properties) {
+        this.transport = transport;
+        this.objectMapper = objectMapper;
+        this.tokenManager = tokenManager;
+        this.properties = properties;
+        this.ticketStore = tokenManager.getTokenStore();
+        this.refresher = new CredentialRefresher("票据", ticketStore, properties,
+            properties.getApi().getTokenRefreshAheadRatio() > 0
+                ? WeChatTokenManager.createRefreshScheduler("wechat-ticket-refresher-", 1)
+                : null,
+            CredentialRefresher.Listener.NONE);
+    }
+    
+    /**
+     * 获取企业的jsapi_ticket（带缓存）
+     *
+     * @param appConfig 应用配置
+     * @return jsapi_ticket
+     */
+    public String getJsapiTicket(WeChatAppConfig appConfig) {
+        return getTicket(appConfig, TicketType.JSAPI);
+    }
+    
+    /**
+     * 获取应用的jsapi_ticket（带缓存）
+     *
+     * @param appConfig 应用配置
+     * @return 应用jsapi_ticket
+     */
+    public String getAgentConfigTicket(WeChatAppConfig appConfig) {
+        return getTicket(appConfig, TicketType.AGENT_CONFIG);
+    }
+    
+    /**
+     * 获取票据（带缓存）
+     *
+     * @param appConfig 应用配置
+     * @param ticketType 票据类型
+     * @return 票据
+     */
+    public String getTicket(WeChatAppConfig appConfig, TicketType ticketType) {
+        String cacheKey = ticketKey(appConfig, ticketType);
+        if (!refresher.isRegistered(cacheKey)) {
+            refresher.register(cacheKey, () -> fetchTicket(appConfig, ticketType));
+        }
+        
+        AccessToken cachedTicket = ticketStore.get(cacheKey);
+        if (cachedTicket != null && cachedTicket.isValid(System.currentTimeMillis())) {
+            refresher.scheduleIfAbsent(cacheKey, cachedTicket);
+            return cachedTicket.getToken();
+        }
+        
+        return refresher.refresh(cacheKey, false, () -> fetchTicket(appConfig, ticketType)).getToken();
+    }
+    
+    /**
+     * 生成wx.config使用的JS-SDK签名
+     *
+     * @param appConfig 应用配置
+     * @param url 当前网页URL，不包含#及其后面部分
+     * @return 签名结果
+     */
+    public JsapiSignature signJsapi(WeChatAppConfig appConfig, String url) {
+        return sign(appConfig, TicketType.JSAPI, url);
+    }
+    
+    /**
+     * 生成wx.agentConfig使用的JS-SDK签名
+     *
+     * @param appConfig 应用配置
+     * @param url 当前网页URL，不包含#及其后面部分
+     * @return 签名结果
+     */
+    public JsapiSignature signAgentConfig(WeChatAppConfig appConfig, String url) {
+        return sign(appConfig, TicketType.AGENT_CONFIG, url);
+    }
+    
+    /**
+     * 使用缓存票据生成JS-SDK签名，不请求企业微信
+     *
+     * @param appConfig 应用配置
+     * @param ticketType 票据类型
+     * @param url 当前网页URL，不包含#及其后面部分
+     * @return 签名结果
+     */
+    private JsapiSignature sign(WeChatAppConfig appConfig, TicketType ticketType, String url) {
+        String ticket = getTicket(appConfig, ticketType);
+        String nonceStr = RandomStringUtils.randomAlphanumeric(NONCE_LENGTH);
+        long timestamp = System.currentTimeMillis() / 1000;
+        String signature = SignatureUtil.jsapiSignature(ticket, nonceStr, timestamp, url);
+        return new JsapiSignature(appConfig.getCorpId(), appConfig.getAgentId(), timestamp, nonceStr, signature);
+    }
+    
+    /**
+     * 获取新票据，过期时间从请求发出时刻起算
+     *
+     * @param appConfig 应用配置
+     * @param ticketType 票据类型
+     * @return 票据
+     */
+    private AccessToken fetchTicket(WeChatAppConfig appConfig, TicketType ticketType) {
+        long requestTime = System.currentTimeMillis();
+        WeChatApiResponse ticketResponse = requestValidTicket(appConfig, ticketType);
+        long lifetimeMillis = tokenManager.computeTokenLifetime(ticketResponse.getExpiresIn());
+        AccessToken ticket = new AccessToken(ticketResponse.getTicket(), requestTime, requestTime + lifetimeMillis);
+        log.info("获取新票据成功: appName={}, type={}", appConfig.getAppName(), ticketType.getType());
+        return ticket;
+    }
+    
+    /**
+     * 计算票据缓存Key
+     * 企业jsapi_ticket属于企业，同一企业的各应用共享，按corpId缓存；应用jsapi_ticket属于应用，按凭证标识缓存
+     *
+     * @param appConfig 应用配置
+     * @param ticketType 票据类型
+     * @return 缓存Key
+     */
+    private String ticketKey(WeChatAppConfig appConfig, TicketType ticketType) {
+        String owner = ticketType == TicketType.JSAPI ? appConfig.getCorpId() : tokenManager.credentialKey(appConfig);
+        return ticketType.getType() + ":" + owner;
+    }
+    
+    /**
+     * 从微信服务器获取票据
+     * access_token被企业微信判定失效时清除缓存并重新获取一次
+     *
+     * @param appConfig 应用配置
+     * @param ticketType 票据类型
+     * @return 票据响应，ticket必定不为空
+     * @throws WeChatNoticeException 获取票据失败时抛出
+     */
+    private WeChatApiResponse requestValidTicket(WeChatAppConfig appConfig, TicketType ticketType) {
+        String accessToken = tokenManager.getAccessToken(appConfig);
+        WeChatApiResponse apiResponse = requestTicket(accessToken, appConfig, ticketType);
+        if (WeChatErrorCode.isTokenInvalid(apiResponse.getErrcode())) {
+            log.warn("获取票据时Token已失效，重新获取Token后重试: appName={}, errCode={}",
+                appConfig.getAppName(), apiResponse.getErrcode());
+            tokenManager.invalidateToken(appConfig, accessToken);
+            apiResponse = requestTicket(tokenManager.getAccessToken(appConfig), appConfig, ticketType);
+        }
+        
+        if (apiResponse.getErrcode() != null && apiResponse.getErrcode() != 0) {
+            throw new WeChatNoticeException(apiResponse.getErrcode(), String.format("获取票据失败: %d - %s",
+                apiResponse.getErrcode(), apiResponse.getErrmsg()));
+        }
+        
+        if (apiResponse.getTicket() == null) {
+            throw new WeChatNoticeException("获取票据响应异常，ticket为空");
+        }
+        
+        return apiResponse;
+    }
+    
+    /**
+     * 请求票据接口
+     *
+     * @param accessToken 访问令牌
+     * @param appConfig 应用配置
+     * @param ticketType 票据类型
+     * @return 票据响应
+     */
+    private WeChatApiResponse requestTicket(String accessToken, WeChatAppConfig appConfig, TicketType ticketType) {
+        String url = properties.getApi().getBaseUrl() + String.format(ticketType.getPathTemplate(), accessToken);
+        
+        log.debug("获取票据: appName={}, type={}", appConfig.getAppName(), ticketType.getType());
+        
+        WeChatHttpRequest request = WeChatRequestConfigs.requestBuilder(properties.getApi())
+            .method(WeChatHttpRequest.GET)
+            .url(url)
+            .build();
+        
+        try {
+            WeChatHttpResponse response = transport.execute(request);
+            return objectMapper.readValue(response.getBody(), WeChatApiResponse.class);
+        } catch (IOException e) {
+            log.error("获取票据HTTP请求失败: appName={}, type={}", appConfig.getAppName(), ticketType.getType(), e);
+            throw new WeChatNoticeException("获取票据HTTP请求失败", e);
+        }
+    }
+    
+    /**
+     * 清除票据缓存
+     *
+     * @param appConfig 应用配置
+     * @param ticketType 票据类型
+     */
+    public void clearTicketCache(WeChatAppConfig appConfig, TicketType ticketType) {
+        String cacheKey = ticketKey(appConfig, ticketType);
+        ticketStore.remove(cacheKey);
+        refresher.cancel(cacheKey);
+        log.info("清除票据缓存: appName={}, type={}", appConfig.getAppName(), ticketType.getType());
+    }
+    
+    /**
+     * 关闭后台票据刷新调度器
+     * 票据存储由Token管理器负责关闭
+     */
+    @Override
+    public void close() {
+        refresher.close();
+    }
+}
\ No newline at end of file
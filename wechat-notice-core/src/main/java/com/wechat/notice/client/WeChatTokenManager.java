@@ -1,35 +1,69 @@
 package com.wechat.notice.client;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wechat.notice.client.token.AccessToken;
+import com.wechat.notice.client.token.FileTokenStore;
+import com.wechat.notice.client.token.InMemoryTokenStore;
+import com.wechat.notice.client.token.TokenStore;
+import com.wechat.notice.client.transport.ApacheWeChatTransport;
+import com.wechat.notice.client.transport.WeChatHttpRequest;
+import com.wechat.notice.client.transport.WeChatHttpResponse;
+import com.wechat.notice.client.transport.WeChatTransport;
 import com.wechat.notice.config.WeChatAppConfig;
 import com.wechat.notice.config.WeChatNoticeProperties;
 import com.wechat.notice.exception.WeChatNoticeException;
 import com.wechat.notice.message.WeChatApiResponse;
-import lombok.RequiredArgsConstructor;
+import com.wechat.notice.message.enums.WeChatErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.util.EntityUtils;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 微信Token管理器
- * 
+ *
  * @author fyf
  */
 @Slf4j
-@RequiredArgsConstructor
-public class WeChatTokenManager {
+public class WeChatTokenManager implements AutoCloseable {
+    
+    /**
+     * gettoken未返回expires_in时使用的默认有效期（秒）
+     */
+    private static final int DEFAULT_EXPIRES_IN_SECONDS = 7200;
+    
+    /**
+     * 使用过期Token期间后台重试刷新的间隔（毫秒）
+     */
+    private static final long STALE_REFRESH_RETRY_DELAY_MILLIS = 5 * 1000L;
     
     /**
-     * HTTP客户端
+     * 凭证标识中Secret摘要的长度（十六进制字符数）
      */
-    private final CloseableHttpClient httpClient;
+    private static final int SECRET_DIGEST_LENGTH = 16;
+    
+    /**
+     * HTTP传输层，仅用于gettoken，建议使用与消息发送隔离的连接池
+     */
+    private final WeChatTransport transport;
     
     /**
      * JSON序列化工具
@@ -42,9 +76,112 @@ public class WeChatTokenManager {
     private final WeChatNoticeProperties properties;
     
     /**
-     * Token缓存，Key为corpId + "_" + agentId
+     * Token存储，Key为凭证标识corpId + ":" + secret摘要
+     * 企业微信按corpsecret颁发Token，共用同一Secret的多个应用配置共享同一个Token和刷新周期
+     */
+    private final TokenStore tokenStore;
+    
+    /**
+     * 是否由本管理器创建并负责关闭tokenStore
+     */
+    private final boolean ownsTokenStore;
+    
+    /**
+     * Token槽位，Key同tokenStore，供AppHandle跳过Key计算和存储查询直接读取Token
+     */
+    private final Map<String, TokenSlot> tokenSlots = new ConcurrentHashMap<>();
+    
+    /**
+     * 刷新临时失败后正在使用过期Token的凭证及下次刷新重试时刻，Key同tokenStore
+     * 重试时刻之前的请求直接使用过期Token，不再同步调用gettoken
+     */
+    private final Map<String, Long> staleRetryTimes = new ConcurrentHashMap<>();
+    
+    /**
+     * 凭证错误的负缓存，Key同tokenStore
+     * 退避期内获取Token直接失败；修改corpId或Secret后凭证标识随之变化，不受旧记录影响
+     */
+    private final Map<String, CredentialFailure> credentialFailures = new ConcurrentHashMap<>();
+    
+    /**
+     * 异步获取Token的线程池，与后台刷新隔离，空闲时不保留线程
+     */
+    private final ExecutorService asyncFetchExecutor;
+    
+    /**
+     * Token刷新器，保证同一凭证同一时刻只有一个gettoken请求，并负责后台提前刷新
      */
-    private final Map<String, WeChatAppConfig> tokenCache = new ConcurrentHashMap<>();
+    private final CredentialRefresher refresher;
+    
+    /**
+     * 构造方法
+     * 配置了tokenStorePath时使用文件存储，否则使用内存存储
+     *
+     * @param httpClient gettoken使用的HTTP客户端，包装为默认的Apache传输层
+     * @param objectMapper JSON序列化工具
+     * @param properties 微信通知配置属性
+     */
+    public WeChatTokenManager(CloseableHttpClient httpClient, ObjectMapper objectMapper,
+                              WeChatNoticeProperties properties) {
+        this(new ApacheWeChatTransport(httpClient), objectMapper, properties, createTokenStore(properties), true);
+    }
+    
+    /**
+     * 构造方法
+     *
+     * @param httpClient gettoken使用的HTTP客户端，包装为默认的Apache传输层
+     * @param objectMapper JSON序列化工具
+     * @param properties 微信通知配置属性
+     * @param tokenStore Token存储，由调用方负责关闭
+     */
+    public WeChatTokenManager(CloseableHttpClient httpClient, ObjectMapper objectMapper,
+                              WeChatNoticeProperties properties, TokenStore tokenStore) {
+        this(new ApacheWeChatTransport(httpClient), objectMapper, properties, tokenStore, false);
+    }
+    
+    /**
+     * 构造方法
+     * 配置了tokenStorePath时使用文件存储，否则使用内存存储
+     *
+     * @param transport gettoken使用的HTTP传输层
+     * @param objectMapper JSON序列化工具
+     * @param properties 微信通知配置属性
+     */
+    public WeChatTokenManager(WeChatTransport transport, ObjectMapper objectMapper,
+                              WeChatNoticeProperties properties) {
+        this(transport, objectMapper, properties, createTokenStore(properties), true);
+    }
+    
+    /**
+     * 构造方法
+     *
+     * @param transport gettoken使用的HTTP传输层
+     * @param objectMapper JSON序列化工具
+     * @param properties 微信通知配置属性
+     * @param tokenStore Token存储，由调用方负责关闭
+     */
+    public WeChatTokenManager(WeChatTransport transport, ObjectMapper objectMapper,
+                              WeChatNoticeProperties properties, TokenStore tokenStore) {
+        this(transport, objectMapper, properties, tokenStore, false);
+    }
+    
+    private WeChatTokenManager(WeChatTransport transport, ObjectMapper objectMapper,
+                               WeChatNoticeProperties properties, TokenStore tokenStore, boolean ownsTokenStore) {
+        this.transport = transport;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.tokenStore = tokenStore;
+        this.ownsTokenStore = ownsTokenStore;
+        WeChatNoticeProperties.Api api = properties.getApi();
+        // 后台Token刷新调度器，提前刷新比例和过期宽限期均为0时不创建
+        ScheduledExecutorService refreshScheduler =
+            api.getTokenRefreshAheadRatio() > 0 || api.getTokenStaleGracePeriod() > 0
+                ? createRefreshScheduler("wechat-token-refresher-", api.getTokenRefreshThreads())
+                : null;
+        this.refresher = new CredentialRefresher("Token", tokenStore, properties, refreshScheduler,
+            new TokenRefreshListener());
+        this.asyncFetchExecutor = Executors.newCachedThreadPool(daemonThreadFactory("wechat-token-fetcher-"));
+    }
     
     /**
      * 获取访问令牌（带缓存）
@@ -53,65 +190,433 @@ public class WeChatTokenManager {
      * @return 访问令牌
      */
     public String getAccessToken(WeChatAppConfig appConfig) {
-        String cacheKey = appConfig.getCorpId() + "_" + appConfig.getAgentId();
-        
-        WeChatAppConfig cachedConfig = tokenCache.get(cacheKey);
-        if (cachedConfig != null && isTokenValid(cachedConfig)) {
+        return getToken(appConfig).getToken();
+    }
+    
+    /**
+     * 获取访问令牌及其有效期（带缓存）
+     * 刷新因网络异常或企业微信系统繁忙失败时，在tokenStaleGracePeriod宽限期内返回已过期的Token，
+     * 同时在后台重试刷新；调用方可通过AccessToken.isValid判断是否拿到了过期Token
+     *
+     * @param appConfig 应用配置
+     * @return 访问令牌
+     */
+    public AccessToken getToken(WeChatAppConfig appConfig) {
+        return getToken(appConfig, slot(appConfig, credentialKey(appConfig)).cacheKey, SendDeadline.UNBOUNDED);
+    }
+    
+    /**
+     * 通过应用句柄获取访问令牌
+     * 槽位中的Token有效时直接返回，不做任何查找；否则按getToken(WeChatAppConfig)的逻辑获取
+     *
+     * @param appHandle 应用句柄
+     * @return 访问令牌
+     */
+    public AccessToken getToken(AppHandle appHandle) {
+        return getToken(appHandle, SendDeadline.UNBOUNDED);
+    }
+    
+    /**
+     * 在截止时间内通过应用句柄获取访问令牌
+     * 在调用线程上请求gettoken，各项超时不超过剩余时间；等待其他线程发起的刷新时最多等到截止时间
+     *
+     * @param appHandle 应用句柄
+     * @param deadline 截止时间
+     * @return 访问令牌
+     */
+    AccessToken getToken(AppHandle appHandle, SendDeadline deadline) {
+        AccessToken token = appHandle.tokenSlot.token;
+        if (token != null && token.isValid(System.currentTimeMillis())) {
+            return token;
+        }
+        return getToken(appHandle.getAppConfig(), appHandle.tokenSlot.cacheKey, deadline);
+    }
+    
+    /**
+     * 异步获取访问令牌
+     * 槽位中的Token有效时直接返回已完成的结果；需要获取Token时在独立的线程池中执行，不阻塞调用线程，
+     * 也不占用后台刷新线程
+     *
+     * @param appHandle 应用句柄
+     * @return 访问令牌
+     */
+    public CompletableFuture<AccessToken> getTokenAsync(AppHandle appHandle) {
+        return getTokenAsync(appHandle, SendDeadline.UNBOUNDED);
+    }
+    
+    /**
+     * 在截止时间内异步获取访问令牌
+     *
+     * @param appHandle 应用句柄
+     * @param deadline 截止时间
+     * @return 访问令牌
+     */
+    CompletableFuture<AccessToken> getTokenAsync(AppHandle appHandle, SendDeadline deadline) {
+        AccessToken token = appHandle.tokenSlot.token;
+        if (token != null && token.isValid(System.currentTimeMillis())) {
+            return CompletableFuture.completedFuture(token);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> getToken(appHandle, deadline), asyncFetchExecutor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<AccessToken> future = new CompletableFuture<>();
+            future.completeExceptionally(new WeChatNoticeException("Token管理器已关闭", e));
+            return future;
+        }
+    }
+    
+    /**
+     * 解析应用句柄
+     * 共用同一Secret的应用配置共享同一个Token槽位
+     *
+     * @param appConfig 应用配置
+     * @return 应用句柄
+     */
+    public AppHandle resolveHandle(WeChatAppConfig appConfig) {
+        return new AppHandle(appConfig, slot(appConfig, credentialKey(appConfig)));
+    }
+    
+    /**
+     * 获取凭证的Token槽位，首次创建时登记后台刷新使用的获取方式
+     * 登记只在创建槽位时发生一次，获取Token的热路径不再创建获取方式
+     *
+     * @param appConfig 应用配置
+     * @param cacheKey 缓存Key
+     * @return Token槽位
+     */
+    private TokenSlot slot(WeChatAppConfig appConfig, String cacheKey) {
+        TokenSlot slot = tokenSlots.get(cacheKey);
+        if (slot != null) {
+            return slot;
+        }
+        return tokenSlots.computeIfAbsent(cacheKey, key -> {
+            refresher.register(key, () -> fetchToken(key, appConfig, SendDeadline.UNBOUNDED));
+            return new TokenSlot(key);
+        });
+    }
+    
+    private AccessToken getToken(WeChatAppConfig appConfig, String cacheKey, SendDeadline deadline) {
+        long now = System.currentTimeMillis();
+        AccessToken cachedToken = tokenStore.get(cacheKey);
+        if (cachedToken != null && cachedToken.isValid(now)) {
             log.debug("使用缓存Token: appName={}", appConfig.getAppName());
-            return cachedConfig.getAccessToken();
+            refresher.scheduleIfAbsent(cacheKey, cachedToken);
+            updateSlot(cacheKey, cachedToken);
+            return cachedToken;
         }
         
-        // 获取新token
-        String newToken = fetchAccessToken(appConfig);
+        CredentialFailure failure = credentialFailures.get(cacheKey);
+        if (failure != null && now < failure.retryTime) {
+            log.debug("凭证错误退避中，跳过获取Token: appName={}", appConfig.getAppName());
+            throw new WeChatNoticeException(failure.errorCode,
+                String.format("获取Token失败，凭证错误退避中（%d毫秒后重试）: %s", failure.retryTime - now, failure.errorMessage));
+        }
         
-        // 更新缓存
-        WeChatAppConfig newConfig = appConfig.toBuilder()
-            .accessToken(newToken)
-            .tokenExpiresTime(System.currentTimeMillis() + 7000 * 1000) // 7000秒后过期
-            .build();
+        if (cachedToken != null && isWithinStaleGrace(cachedToken, now)) {
+            Long retryTime = staleRetryTimes.get(cacheKey);
+            if (retryTime != null && now < retryTime) {
+                log.debug("Token刷新后台重试中，使用过期Token: appName={}", appConfig.getAppName());
+                return cachedToken;
+            }
+        }
+        
+        try {
+            return refresher.refresh(cacheKey, false, () -> fetchToken(cacheKey, appConfig, deadline), deadline);
+        } catch (WeChatNoticeException e) {
+            if (cachedToken == null || !isWithinStaleGrace(cachedToken, System.currentTimeMillis())
+                || !isTransientFailure(e)) {
+                throw e;
+            }
+            log.warn("刷新Token失败，宽限期内继续使用过期Token并在后台重试: appName={}, error={}",
+                appConfig.getAppName(), e.getMessage());
+            scheduleStaleRetry(cacheKey);
+            return cachedToken;
+        }
+    }
+    
+    /**
+     * 按配置预热Token
+     *
+     * @param apps 应用配置映射，Key为应用名称，通常来自WeChatAppConfigService.getAllApps()
+     * @return 各应用的预热结果，true-成功，false-失败或超时
+     */
+    public Map<String, Boolean> warmUp(Map<String, WeChatAppConfig> apps) {
+        WeChatNoticeProperties.Api api = properties.getApi();
+        return warmUp(apps, api.getTokenWarmUpParallelism(), api.getTokenWarmUpTimeout());
+    }
+    
+    /**
+     * 并发预热Token
+     * 最多等待timeoutMillis，超时后立即返回，未完成的应用在后台继续获取并写入缓存
+     *
+     * @param apps 应用配置映射，Key为应用名称
+     * @param parallelism 并发数
+     * @param timeoutMillis 总时间预算（毫秒）
+     * @return 各应用的预热结果，true-成功，false-失败或超时
+     */
+    public Map<String, Boolean> warmUp(Map<String, WeChatAppConfig> apps, int parallelism, long timeoutMillis) {
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        if (apps == null || apps.isEmpty()) {
+            return results;
+        }
         
-        tokenCache.put(cacheKey, newConfig);
+        long startTime = System.currentTimeMillis();
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, apps.size())),
+            runnable -> {
+                Thread thread = new Thread(runnable, "wechat-token-warmup-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        Map<String, Future<String>> futures = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, WeChatAppConfig> entry : apps.entrySet()) {
+                futures.put(entry.getKey(), executor.submit(() -> getAccessToken(entry.getValue())));
+            }
+        } finally {
+            // 不中断进行中的请求，超出预算的应用在后台继续完成
+            executor.shutdown();
+        }
         
-        log.info("获取新Token成功: appName={}", appConfig.getAppName());
-        return newToken;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        for (Map.Entry<String, Future<String>> entry : futures.entrySet()) {
+            String appName = entry.getKey();
+            try {
+                entry.getValue().get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                results.put(appName, true);
+            } catch (TimeoutException e) {
+                log.warn("Token预热超时，转入后台继续获取: appName={}", appName);
+                results.put(appName, false);
+            } catch (ExecutionException e) {
+                log.warn("Token预热失败: appName={}, error={}", appName, e.getCause().getMessage());
+                results.put(appName, false);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Token预热被中断: appName={}", appName);
+                results.put(appName, false);
+            }
+        }
+        
+        long successCount = results.values().stream().filter(Boolean::booleanValue).count();
+        log.info("Token预热完成: total={}, success={}, cost={}ms",
+            results.size(), successCount, System.currentTimeMillis() - startTime);
+        return results;
     }
     
     /**
-     * 检查Token是否有效
+     * 获取新Token，过期时间从请求发出时刻起算
+     * 由刷新器在单飞保护下调用，凭证错误时记录负缓存
      *
-     * @param config 应用配置
-     * @return true-有效，false-无效
+     * @param cacheKey 缓存Key
+     * @param appConfig 应用配置
+     * @param deadline 截止时间
+     * @return 访问令牌
      */
-    private boolean isTokenValid(WeChatAppConfig config) {
-        return config.getAccessToken() != null && 
-               config.getTokenExpiresTime() != null &&
-               config.getTokenExpiresTime() > System.currentTimeMillis();
+    private AccessToken fetchToken(String cacheKey, WeChatAppConfig appConfig, SendDeadline deadline) {
+        try {
+            long requestTime = System.currentTimeMillis();
+            WeChatApiResponse tokenResponse = fetchAccessToken(appConfig, deadline);
+            long lifetimeMillis = computeTokenLifetime(tokenResponse.getExpiresIn());
+            AccessToken accessToken = new AccessToken(tokenResponse.getAccessToken(), requestTime,
+                requestTime + lifetimeMillis);
+            log.info("获取新Token成功: appName={}", appConfig.getAppName());
+            return accessToken;
+        } catch (RuntimeException e) {
+            recordCredentialFailure(cacheKey, appConfig, e);
+            throw e;
+        }
+    }
+    
+    /**
+     * 更新Token槽位，尚未获取过Token的凭证没有槽位
+     *
+     * @param cacheKey 缓存Key
+     * @param accessToken 有效Token，为空时清空槽位
+     */
+    private void updateSlot(String cacheKey, AccessToken accessToken) {
+        TokenSlot slot = tokenSlots.get(cacheKey);
+        if (slot != null) {
+            slot.token = accessToken;
+        }
+    }
+    
+    /**
+     * 记录凭证错误并按指数退避计算下次允许请求的时刻
+     * 仅记录企业ID或Secret配置错误，网络异常等临时性失败不做负缓存
+     *
+     * @param cacheKey 缓存Key
+     * @param appConfig 应用配置
+     * @param e 刷新异常
+     */
+    private void recordCredentialFailure(String cacheKey, WeChatAppConfig appConfig, RuntimeException e) {
+        if (!(e instanceof WeChatNoticeException)) {
+            return;
+        }
+        Integer errorCode = ((WeChatNoticeException) e).getErrorCode();
+        if (!WeChatErrorCode.isCredentialInvalid(errorCode)) {
+            return;
+        }
+        
+        WeChatNoticeProperties.Api api = properties.getApi();
+        long initialMillis = Math.max(api.getTokenFailureBackoff(), 0) * 1000L;
+        long maxMillis = Math.max(api.getTokenFailureMaxBackoff(), 0) * 1000L;
+        if (initialMillis <= 0) {
+            return;
+        }
+        CredentialFailure failure = credentialFailures.compute(cacheKey, (key, previous) -> {
+            int failures = previous == null ? 1 : previous.failures + 1;
+            long backoffMillis = Math.min(initialMillis << Math.min(failures - 1, 30), Math.max(maxMillis, initialMillis));
+            return new CredentialFailure(failures, System.currentTimeMillis() + backoffMillis,
+                errorCode, e.getMessage());
+        });
+        log.warn("凭证错误，{}毫秒内不再请求gettoken: appName={}, failures={}, error={}",
+            failure.retryTime - System.currentTimeMillis(), appConfig.getAppName(), failure.failures, e.getMessage());
+    }
+    
+    /**
+     * 计算本地Token生命周期
+     * 以gettoken返回的expires_in为准，扣除安全余量和随机抖动；安全余量与抖动之和最多占用有效期的一半
+     *
+     * @param expiresIn gettoken返回的有效期（秒），为空时按7200秒计算
+     * @return 本地Token生命周期（毫秒）
+     */
+    long computeTokenLifetime(Integer expiresIn) {
+        long expiresInMillis = (expiresIn != null && expiresIn > 0 ? expiresIn : DEFAULT_EXPIRES_IN_SECONDS) * 1000L;
+        WeChatNoticeProperties.Api api = properties.getApi();
+        long marginMillis = Math.max(api.getTokenExpireSafetyMargin(), 0) * 1000L;
+        long jitterMillis = api.getTokenExpireJitter() > 0
+            ? ThreadLocalRandom.current().nextLong(api.getTokenExpireJitter() * 1000L)
+            : 0;
+        return expiresInMillis - Math.min(marginMillis + jitterMillis, expiresInMillis / 2);
+    }
+    
+    /**
+     * 判断过期Token是否仍在宽限期内
+     *
+     * @param accessToken 缓存的Token
+     * @param now 当前时间戳（毫秒）
+     * @return true-可继续使用，false-已超出宽限期
+     */
+    private boolean isWithinStaleGrace(AccessToken accessToken, long now) {
+        long graceMillis = properties.getApi().getTokenStaleGracePeriod() * 1000L;
+        return graceMillis > 0 && now < accessToken.getExpiresTime() + graceMillis;
+    }
+    
+    /**
+     * 判断Token刷新失败是否为临时性失败（网络异常或企业微信系统繁忙）
+     *
+     * @param e 刷新异常
+     * @return true-临时性失败，false-凭证错误等不可通过重试恢复的失败
+     */
+    private static boolean isTransientFailure(WeChatNoticeException e) {
+        return e.getCause() instanceof IOException || WeChatErrorCode.isRetryable(e.getErrorCode());
+    }
+    
+    /**
+     * 进入过期Token宽限模式，调度后台重试刷新
+     *
+     * @param cacheKey 缓存Key
+     */
+    private void scheduleStaleRetry(String cacheKey) {
+        staleRetryTimes.put(cacheKey, System.currentTimeMillis() + STALE_REFRESH_RETRY_DELAY_MILLIS);
+        refresher.scheduleRefreshAfter(cacheKey, STALE_REFRESH_RETRY_DELAY_MILLIS);
+    }
+    
+    /**
+     * 创建后台刷新调度器
+     *
+     * @param threadNamePrefix 线程名前缀
+     * @param threads 线程数
+     * @return 调度器
+     */
+    static ScheduledExecutorService createRefreshScheduler(String threadNamePrefix, int threads) {
+        return Executors.newScheduledThreadPool(Math.max(1, threads), daemonThreadFactory(threadNamePrefix));
+    }
+    
+    private static ThreadFactory daemonThreadFactory(String threadNamePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    /**
+     * 计算凭证标识
+     * 使用Secret的SHA-256摘要而非明文，Key会写入共享存储和日志；
+     * 每次重新计算，不在内存中按明文Secret缓存，发送热路径经AppHandle的Token槽位不会调用本方法
+     *
+     * @param appConfig 应用配置
+     * @return 凭证标识
+     * @throws WeChatNoticeException 应用未配置Secret时抛出
+     */
+    String credentialKey(WeChatAppConfig appConfig) {
+        String secret = appConfig.getSecret();
+        if (StringUtils.isBlank(secret)) {
+            throw new WeChatNoticeException("应用未配置Secret: appName=" + appConfig.getAppName());
+        }
+        return appConfig.getCorpId() + ":" + DigestUtils.sha256Hex(secret).substring(0, SECRET_DIGEST_LENGTH);
+    }
+    
+    /**
+     * 获取Token存储，供同包的票据管理器共享
+     *
+     * @return Token存储
+     */
+    TokenStore getTokenStore() {
+        return tokenStore;
+    }
+    
+    /**
+     * 根据配置创建Token存储
+     *
+     * @param properties 微信通知配置属性
+     * @return Token存储
+     */
+    private static TokenStore createTokenStore(WeChatNoticeProperties properties) {
+        String storePath = properties.getApi().getTokenStorePath();
+        return StringUtils.isNotBlank(storePath)
+            ? new FileTokenStore(Paths.get(storePath))
+            : new InMemoryTokenStore();
     }
     
     /**
      * 从微信服务器获取Token
      *
      * @param appConfig 应用配置
-     * @return 新的访问令牌
-     * @throws WeChatNoticeException 获取Token失败时抛出
+     * @param deadline 截止时间，各项超时不超过剩余时间
+     * @return gettoken响应，accessToken必定不为空
+     * @throws WeChatNoticeException 获取Token失败或已超过截止时间时抛出
      */
-    private String fetchAccessToken(WeChatAppConfig appConfig) {
+    private WeChatApiResponse fetchAccessToken(WeChatAppConfig appConfig, SendDeadline deadline) {
         String baseUrl = properties.getApi().getBaseUrl();
         String url = String.format("%s/cgi-bin/gettoken?corpid=%s&corpsecret=%s",
             baseUrl, appConfig.getCorpId(), appConfig.getSecret());
         
         log.debug("获取访问Token: corpId={}, agentId={}", appConfig.getCorpId(), appConfig.getAgentId());
         
-        HttpGet get = new HttpGet(url);
-        get.setHeader("User-Agent", "WeChat-Notice-Client/1.0.0");
+        WeChatHttpRequest.WeChatHttpRequestBuilder builder;
+        if (deadline.isUnbounded()) {
+            builder = WeChatRequestConfigs.requestBuilder(properties.getApi());
+        } else {
+            long remainingMillis = deadline.remainingMillis();
+            if (remainingMillis <= 0) {
+                throw new WeChatNoticeException("发送超时，获取Token超过截止时间: appName=" + appConfig.getAppName());
+            }
+            builder = WeChatRequestConfigs.requestBuilder(properties.getApi(), remainingMillis);
+        }
+        WeChatHttpRequest request = builder
+            .method(WeChatHttpRequest.GET)
+            .url(url)
+            .build();
         
-        try (CloseableHttpResponse response = httpClient.execute(get)) {
-            String responseBody = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
-            
-            WeChatApiResponse apiResponse = objectMapper.readValue(responseBody, WeChatApiResponse.class);
+        try {
+            WeChatHttpResponse response = transport.execute(request);
+            WeChatApiResponse apiResponse = objectMapper.readValue(response.getBody(), WeChatApiResponse.class);
             
             if (apiResponse.getErrcode() != null && apiResponse.getErrcode() != 0) {
-                throw new WeChatNoticeException(String.format("获取Token失败: %d - %s", 
+                throw new WeChatNoticeException(apiResponse.getErrcode(), String.format("获取Token失败: %d - %s",
                     apiResponse.getErrcode(), apiResponse.getErrmsg()));
             }
             
@@ -119,8 +624,8 @@ public class WeChatTokenManager {
                 throw new WeChatNoticeException("获取Token响应异常，accessToken为空");
             }
             
-            return apiResponse.getAccessToken();
-            
+            return apiResponse;
+        
         } catch (IOException e) {
             log.error("获取Token HTTP请求失败: corpId={}", appConfig.getCorpId(), e);
             throw new WeChatNoticeException("获取Token HTTP请求失败", e);
@@ -129,12 +634,113 @@ public class WeChatTokenManager {
     
     /**
      * 清除Token缓存
+     * 共用同一Secret的应用配置共享Token，会被一并清除
      *
      * @param appConfig 应用配置
      */
     public void clearTokenCache(WeChatAppConfig appConfig) {
-        String cacheKey = appConfig.getCorpId() + "_" + appConfig.getAgentId();
-        tokenCache.remove(cacheKey);
+        String cacheKey = credentialKey(appConfig);
+        tokenStore.remove(cacheKey);
+        updateSlot(cacheKey, null);
+        staleRetryTimes.remove(cacheKey);
+        credentialFailures.remove(cacheKey);
+        refresher.cancel(cacheKey);
         log.info("清除Token缓存: appName={}", appConfig.getAppName());
     }
+    
+    /**
+     * 使指定Token失效
+     * 仅当缓存中的Token仍是传入的失效Token时才清除，避免并发收到Token错误时误删其他线程刚刷新的新Token
+     *
+     * @param appConfig 应用配置
+     * @param staleToken 被企业微信判定为失效的Token
+     */
+    public void invalidateToken(WeChatAppConfig appConfig, String staleToken) {
+        String cacheKey = credentialKey(appConfig);
+        TokenSlot slot = tokenSlots.get(cacheKey);
+        AccessToken slotToken = slot != null ? slot.token : null;
+        if (slotToken != null && slotToken.getToken().equals(staleToken)) {
+            slot.token = null;
+        }
+        if (staleToken != null && tokenStore.remove(cacheKey, staleToken)) {
+            staleRetryTimes.remove(cacheKey);
+            refresher.cancel(cacheKey);
+            log.info("Token已被企业微信判定失效，清除缓存: appName={}", appConfig.getAppName());
+        }
+    }
+    
+    /**
+     * 关闭后台Token刷新调度器，以及由本管理器创建的Token存储
+     */
+    @Override
+    public void close() {
+        refresher.close();
+        asyncFetchExecutor.shutdownNow();
+        if (ownsTokenStore && tokenStore instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) tokenStore).close();
+            } catch (Exception e) {
+                log.warn("关闭Token存储失败", e);
+            }
+        }
+    }
+    
+    /**
+     * Token刷新结果监听器
+     */
+    private final class TokenRefreshListener implements CredentialRefresher.Listener {
+        
+        @Override
+        public void onRefreshed(String cacheKey, AccessToken credential) {
+            staleRetryTimes.remove(cacheKey);
+            credentialFailures.remove(cacheKey);
+            updateSlot(cacheKey, credential);
+        }
+        
+        @Override
+        public boolean onExpiredRefreshFailed(String cacheKey, AccessToken expired, RuntimeException e) {
+            if (e instanceof WeChatNoticeException && isTransientFailure((WeChatNoticeException) e)
+                && isWithinStaleGrace(expired, System.currentTimeMillis())) {
+                log.warn("后台刷新Token失败，宽限期内{}秒后重试: cacheKey={}, error={}",
+                    STALE_REFRESH_RETRY_DELAY_MILLIS / 1000, cacheKey, e.getMessage());
+                scheduleStaleRetry(cacheKey);
+                return true;
+            }
+            staleRetryTimes.remove(cacheKey);
+            return false;
+        }
+    }
+    
+    /**
+     * 凭证错误记录
+     */
+    private static final class CredentialFailure {
+        
+        /**
+         * 连续失败次数
+         */
+        private final int failures;
+        
+        /**
+         * 退避结束时刻（毫秒时间戳）
+         */
+        private final long retryTime;
+        
+        /**
+         * 企业微信返回的错误码
+         */
+        private final Integer errorCode;
+        
+        /**
+         * 最近一次失败的错误信息
+         */
+        private final String errorMessage;
+        
+        private CredentialFailure(int failures, long retryTime, Integer errorCode, String errorMessage) {
+            this.failures = failures;
+            this.retryTime = retryTime;
+            this.errorCode = errorCode;
+            this.errorMessage = errorMessage;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.wechat.notice.client.ticket;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * JS-SDK签名结果
+ * 包含页面调用wx.config或wx.agentConfig所需的全部参数
+ *
+ * @author fyf
+ */
+@Getter
+@AllArgsConstructor
+public class JsapiSignature {
+    
+    /**
+     * 企业ID，对应wx.config的appId和wx.agentConfig的corpid
+     */
+    private final String corpId;
+    
+    /**
+     * 应用ID，对应wx.agentConfig的agentid
+     */
+    private final Integer agentId;
+    
+    /**
+     * 签名时间戳（秒）
+     */
+    private final long timestamp;
+    
+    /**
+     * 签名随机串
+     */
+    private final String nonceStr;
+    
+    /**
+     * 签名
+     */
+    private final String signature;
+}
\ No newline at end of file
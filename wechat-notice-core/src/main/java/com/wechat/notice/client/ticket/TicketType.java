@@ -0,0 +1,49 @@
+package com.wechat.notice.client.ticket;
+
+import lombok.Getter;
+
+/**
+ * JS-SDK票据类型枚举
+ *
+ * @author fyf
+ */
+@Getter
+public enum TicketType {
+    /**
+     * 企业的jsapi_ticket，用于wx.config
+     */
+    JSAPI("jsapi", "企业jsapi_ticket", "/cgi-bin/get_jsapi_ticket?access_token=%s"),
+    
+    /**
+     * 应用的jsapi_ticket，用于wx.agentConfig
+     */
+    AGENT_CONFIG("agent_config", "应用jsapi_ticket", "/cgi-bin/ticket/get?access_token=%s&type=agent_config");
+    
+    /**
+     * 类型标识，同时作为缓存Key前缀
+     */
+    private final String type;
+    
+    /**
+     * 类型描述
+     */
+    private final String description;
+    
+    /**
+     * 获取票据的接口路径模板，参数为access_token
+     */
+    private final String pathTemplate;
+    
+    /**
+     * 构造方法
+     *
+     * @param type 类型标识
+     * @param description 类型描述
+     * @param pathTemplate 接口路径模板
+     */
+    TicketType(String type, String description, String pathTemplate) {
+        this.type = type;
+        this.description = description;
+        this.pathTemplate = pathTemplate;
+    }
+}
\ No newline at end of file
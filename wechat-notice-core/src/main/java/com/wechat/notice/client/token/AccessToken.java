@@ -0,0 +1,49 @@
+package com.wechat.notice.client.token;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 访问令牌
+ * 不可变对象，可在线程间安全共享
+ *
+ * @author fyf
+ */
+@Getter
+@AllArgsConstructor
+public class AccessToken {
+    
+    /**
+     * 访问令牌
+     */
+    private final String token;
+    
+    /**
+     * 获取时间（毫秒时间戳），即gettoken请求发出的时刻
+     */
+    private final long issuedTime;
+    
+    /**
+     * 本地过期时间（毫秒时间戳），已扣除安全余量和随机抖动
+     */
+    private final long expiresTime;
+    
+    /**
+     * 判断令牌在指定时刻是否有效
+     *
+     * @param now 当前毫秒时间戳
+     * @return true-有效，false-已过期
+     */
+    public boolean isValid(long now) {
+        return expiresTime > now;
+    }
+    
+    /**
+     * 获取本地生命周期
+     *
+     * @return 生命周期（毫秒）
+     */
+    public long getLifetime() {
+        return expiresTime - issuedTime;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,409 @@
+package com.wechat.notice.client.token;
+
+import com.wechat.notice.exception.WeChatNoticeException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 基于内存映射文件的Token存储
+ * 同一台机器上的多个JVM以及重启后的进程共享同一个文件，复用仍在有效期内的Token，避免滚动发布时集中调用gettoken
+ * <p>
+ * 文件由固定大小的槽位组成，跨进程读写通过文件锁互斥；进程内另有一层内存缓存，Token有效期内不访问文件。
+ * FileChannel在线程被中断时会被关闭，加锁期间暂时清除中断标记，通道仍被关闭时重新打开。
+ * 同一JVM内同一个文件只应创建一个实例
+ *
+ * @author fyf
+ */
+@Slf4j
+public class FileTokenStore implements TokenStore, AutoCloseable {
+    
+    /**
+     * 默认槽位数
+     */
+    public static final int DEFAULT_SLOT_COUNT = 256;
+    
+    /**
+     * 文件魔数 "WXTK"
+     */
+    private static final int MAGIC = 0x5758544B;
+    
+    /**
+     * 文件格式版本
+     */
+    private static final int VERSION = 1;
+    
+    /**
+     * 文件头长度：魔数、版本、槽位数、槽位长度各4字节
+     */
+    private static final int HEADER_SIZE = 16;
+    
+    /**
+     * 槽位长度
+     */
+    private static final int SLOT_SIZE = 1024;
+    
+    /**
+     * 槽位内各字段偏移：keyLength(int) key(128字节) issuedTime(long) expiresTime(long) tokenLength(int) token
+     */
+    private static final int KEY_OFFSET = 4;
+    private static final int MAX_KEY_BYTES = 128;
+    private static final int ISSUED_TIME_OFFSET = KEY_OFFSET + MAX_KEY_BYTES;
+    private static final int EXPIRES_TIME_OFFSET = ISSUED_TIME_OFFSET + 8;
+    private static final int TOKEN_LENGTH_OFFSET = EXPIRES_TIME_OFFSET + 8;
+    private static final int TOKEN_OFFSET = TOKEN_LENGTH_OFFSET + 4;
+    private static final int MAX_TOKEN_BYTES = SLOT_SIZE - TOKEN_OFFSET;
+    
+    /**
+     * 存储文件路径
+     */
+    private final Path path;
+    
+    /**
+     * 文件通道，只在持有对象锁时替换
+     */
+    private FileChannel channel;
+    
+    /**
+     * 是否已关闭，关闭后不再重新打开通道
+     */
+    private boolean closed;
+    
+    /**
+     * 文件映射缓冲区，只在持有对象锁时访问
+     */
+    private final MappedByteBuffer buffer;
+    
+    /**
+     * 槽位数
+     */
+    private final int slotCount;
+    
+    /**
+     * 进程内缓存
+     */
+    private final Map<String, AccessToken> localCache = new ConcurrentHashMap<>();
+    
+    /**
+     * 构造方法，使用默认槽位数
+     *
+     * @param path 存储文件路径
+     */
+    public FileTokenStore(Path path) {
+        this(path, DEFAULT_SLOT_COUNT);
+    }
+    
+    /**
+     * 构造方法
+     *
+     * @param path 存储文件路径
+     * @param slotCount 新建文件时的槽位数，已有文件以文件头为准
+     */
+    public FileTokenStore(Path path, int slotCount) {
+        this.path = path;
+        // 中断会关闭通道，初始化期间暂时清除中断标记
+        boolean interrupted = Thread.interrupted();
+        try {
+            this.channel = openChannel(path);
+            try (FileLock ignored = channel.lock()) {
+                if (channel.size() == 0) {
+                    this.slotCount = slotCount;
+                    this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(slotCount));
+                    buffer.putInt(0, MAGIC);
+                    buffer.putInt(4, VERSION);
+                    buffer.putInt(8, slotCount);
+                    buffer.putInt(12, SLOT_SIZE);
+                } else {
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                    channel.read(header, 0);
+                    if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(12) != SLOT_SIZE) {
+                        throw new WeChatNoticeException("Token存储文件格式不匹配: " + path);
+                    }
+                    this.slotCount = header.getInt(8);
+                    this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(this.slotCount));
+                }
+            }
+        } catch (IOException e) {
+            throw new WeChatNoticeException("打开Token存储文件失败: " + path, e);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.info("Token文件存储已启用: path={}, slots={}", path, this.slotCount);
+    }
+    
+    @Override
+    public AccessToken get(String key) {
+        AccessToken cached = localCache.get(key);
+        if (cached != null && cached.isValid(System.currentTimeMillis())) {
+            return cached;
+        }
+        
+        AccessToken stored = read(key);
+        if (stored != null) {
+            localCache.put(key, stored);
+        } else {
+            localCache.remove(key);
+        }
+        return stored;
+    }
+    
+    @Override
+    public void put(String key, AccessToken token) {
+        localCache.put(key, token);
+        write(key, token);
+    }
+    
+    @Override
+    public void remove(String key) {
+        localCache.remove(key);
+        clear(key, null);
+    }
+    
+    @Override
+    public boolean remove(String key, String expectedToken) {
+        AccessToken cached = localCache.get(key);
+        boolean removed = cached != null && cached.getToken().equals(expectedToken) && localCache.remove(key, cached);
+        return clear(key, expectedToken) || removed;
+    }
+    
+    /**
+     * 关闭文件通道
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("关闭Token存储文件失败: path={}", path, e);
+        }
+    }
+    
+    /**
+     * 从文件读取Token
+     *
+     * @param key 缓存Key
+     * @return Token，不存在时返回null
+     */
+    private synchronized AccessToken read(String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        try (FileLock ignored = lock(true)) {
+            int slot = findSlot(keyBytes);
+            if (slot < 0) {
+                return null;
+            }
+            int base = slotOffset(slot);
+            int tokenLength = buffer.getInt(base + TOKEN_LENGTH_OFFSET);
+            if (tokenLength <= 0 || tokenLength > MAX_TOKEN_BYTES) {
+                return null;
+            }
+            return new AccessToken(
+                new String(readBytes(base + TOKEN_OFFSET, tokenLength), StandardCharsets.UTF_8),
+                buffer.getLong(base + ISSUED_TIME_OFFSET),
+                buffer.getLong(base + EXPIRES_TIME_OFFSET));
+        } catch (IOException e) {
+            log.warn("读取Token存储文件失败: path={}", path, e);
+            return null;
+        }
+    }
+    
+    /**
+     * 写入Token到文件
+     * 优先覆盖同Key槽位，其次使用空槽位，槽位已满时淘汰最早过期的Token
+     *
+     * @param key 缓存Key
+     * @param token Token
+     */
+    private synchronized void write(String key, AccessToken token) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] tokenBytes = token.getToken().getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > MAX_KEY_BYTES || tokenBytes.length > MAX_TOKEN_BYTES) {
+            log.warn("Token长度超出文件槽位限制，仅缓存在进程内: key={}", key);
+            return;
+        }
+        
+        try (FileLock ignored = lock(false)) {
+            int slot = findSlot(keyBytes);
+            if (slot < 0) {
+                slot = findFreeSlot();
+            }
+            int base = slotOffset(slot);
+            // 先清空Key长度，其他进程在写入完成前不会读到半写的槽位
+            buffer.putInt(base, 0);
+            writeBytes(base + KEY_OFFSET, keyBytes);
+            buffer.putLong(base + ISSUED_TIME_OFFSET, token.getIssuedTime());
+            buffer.putLong(base + EXPIRES_TIME_OFFSET, token.getExpiresTime());
+            buffer.putInt(base + TOKEN_LENGTH_OFFSET, tokenBytes.length);
+            writeBytes(base + TOKEN_OFFSET, tokenBytes);
+            buffer.putInt(base, keyBytes.length);
+        } catch (IOException e) {
+            log.warn("写入Token存储文件失败: path={}", path, e);
+        }
+    }
+    
+    /**
+     * 清除文件中的Token
+     *
+     * @param key 缓存Key
+     * @param expectedToken 期望清除的令牌值，为null时无条件清除
+     * @return 是否清除了槽位
+     */
+    private synchronized boolean clear(String key, String expectedToken) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        try (FileLock ignored = lock(false)) {
+            int slot = findSlot(keyBytes);
+            if (slot < 0) {
+                return false;
+            }
+            int base = slotOffset(slot);
+            if (expectedToken != null) {
+                int tokenLength = buffer.getInt(base + TOKEN_LENGTH_OFFSET);
+                byte[] expected = expectedToken.getBytes(StandardCharsets.UTF_8);
+                if (tokenLength != expected.length
+                    || !Arrays.equals(readBytes(base + TOKEN_OFFSET, tokenLength), expected)) {
+                    return false;
+                }
+            }
+            buffer.putInt(base, 0);
+            return true;
+        } catch (IOException e) {
+            log.warn("清除Token存储文件失败: path={}", path, e);
+            return false;
+        }
+    }
+    
+    /**
+     * 获取文件锁
+     * 加锁期间暂时清除当前线程的中断标记，结束后恢复，避免中断关闭通道；
+     * 通道仍被关闭（如加锁过程中收到中断）时重新打开一次，映射缓冲区不受通道关闭影响，继续使用
+     *
+     * @param shared 是否为共享锁
+     * @return 文件锁
+     * @throws IOException 加锁失败
+     */
+    private FileLock lock(boolean shared) throws IOException {
+        boolean interrupted = Thread.interrupted();
+        try {
+            try {
+                return lockChannel(shared);
+            } catch (ClosedChannelException e) {
+                interrupted |= Thread.interrupted();
+                if (closed) {
+                    throw e;
+                }
+                log.warn("Token存储文件通道被关闭，重新打开: path={}", path);
+                channel = openChannel(path);
+                return lockChannel(shared);
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    private FileLock lockChannel(boolean shared) throws IOException {
+        return shared ? channel.lock(0, Long.MAX_VALUE, true) : channel.lock();
+    }
+    
+    /**
+     * 查找Key所在槽位
+     *
+     * @param keyBytes Key的UTF-8字节
+     * @return 槽位序号，不存在时返回-1
+     */
+    private int findSlot(byte[] keyBytes) {
+        for (int slot = 0; slot < slotCount; slot++) {
+            int base = slotOffset(slot);
+            if (buffer.getInt(base) == keyBytes.length
+                && Arrays.equals(readBytes(base + KEY_OFFSET, keyBytes.length), keyBytes)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * 查找可写入的槽位：空槽位优先，否则返回最早过期的槽位
+     *
+     * @return 槽位序号
+     */
+    private int findFreeSlot() {
+        int oldest = 0;
+        long oldestExpiresTime = Long.MAX_VALUE;
+        for (int slot = 0; slot < slotCount; slot++) {
+            int base = slotOffset(slot);
+            int keyLength = buffer.getInt(base);
+            if (keyLength <= 0 || keyLength > MAX_KEY_BYTES) {
+                return slot;
+            }
+            long expiresTime = buffer.getLong(base + EXPIRES_TIME_OFFSET);
+            if (expiresTime < oldestExpiresTime) {
+                oldestExpiresTime = expiresTime;
+                oldest = slot;
+            }
+        }
+        return oldest;
+    }
+    
+    private byte[] readBytes(int offset, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.get(bytes);
+        return bytes;
+    }
+    
+    private void writeBytes(int offset, byte[] bytes) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.put(bytes);
+    }
+    
+    private static int slotOffset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+    
+    private static long fileSize(int slotCount) {
+        return HEADER_SIZE + (long) slotCount * SLOT_SIZE;
+    }
+    
+    /**
+     * 打开存储文件，新建时仅允许当前用户读写
+     *
+     * @param path 存储文件路径
+     * @return 文件通道
+     * @throws IOException 打开失败
+     */
+    private static FileChannel openChannel(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (!Files.exists(path) && FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            try {
+                Files.createFile(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+            } catch (FileAlreadyExistsException ignored) {
+                // 其他进程同时创建了文件
+            }
+        }
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+}
\ No newline at end of file
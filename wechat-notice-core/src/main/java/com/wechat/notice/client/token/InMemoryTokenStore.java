@@ -0,0 +1,38 @@
+package com.wechat.notice.client.token;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 基于内存的Token存储，默认实现
+ *
+ * @author fyf
+ */
+public class InMemoryTokenStore implements TokenStore {
+    
+    /**
+     * Token缓存
+     */
+    private final Map<String, AccessToken> tokens = new ConcurrentHashMap<>();
+    
+    @Override
+    public AccessToken get(String key) {
+        return tokens.get(key);
+    }
+    
+    @Override
+    public void put(String key, AccessToken token) {
+        tokens.put(key, token);
+    }
+    
+    @Override
+    public void remove(String key) {
+        tokens.remove(key);
+    }
+    
+    @Override
+    public boolean remove(String key, String expectedToken) {
+        AccessToken current = tokens.get(key);
+        return current != null && current.getToken().equals(expectedToken) && tokens.remove(key, current);
+    }
+}
\ No newline at end of file
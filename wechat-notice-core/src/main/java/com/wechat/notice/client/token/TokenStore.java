@@ -0,0 +1,44 @@
+package com.wechat.notice.client.token;
+
+/**
+ * 访问令牌存储接口
+ * WeChatTokenManager通过该接口读写Token，可替换为文件、Redis等共享存储，使重启后的进程或同机的多个JVM复用仍有效的Token
+ * <p>
+ * 实现必须线程安全。get返回的Token可能已过期，是否可用由调用方判断
+ *
+ * @author fyf
+ */
+public interface TokenStore {
+    
+    /**
+     * 读取Token
+     *
+     * @param key 缓存Key
+     * @return Token，不存在时返回null
+     */
+    AccessToken get(String key);
+    
+    /**
+     * 写入Token，覆盖已有值
+     *
+     * @param key 缓存Key
+     * @param token Token
+     */
+    void put(String key, AccessToken token);
+    
+    /**
+     * 删除Token
+     *
+     * @param key 缓存Key
+     */
+    void remove(String key);
+    
+    /**
+     * 仅当当前存储的令牌值等于expectedToken时删除
+     *
+     * @param key 缓存Key
+     * @param expectedToken 期望删除的令牌值
+     * @return true-已删除，false-当前值已变化或不存在
+     */
+    boolean remove(String key, String expectedToken);
+}
\ No newline at end of file
@@ -0,0 +1,176 @@
+package com.wechat.notice.client.transport;
+
+import com.wechat.notice.exception.WeChatNoticeException;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * 基于Apache HttpClient的传输层实现（默认实现）
+ * HTTP客户端由创建方负责关闭；异步HTTP客户端可延迟到首次异步请求时再获取
+ *
+ * @author fyf
+ */
+public class ApacheWeChatTransport implements WeChatTransport {
+    
+    /**
+     * 空响应体
+     */
+    private static final byte[] EMPTY_BODY = new byte[0];
+    
+    /**
+     * 同步HTTP客户端
+     */
+    private final CloseableHttpClient httpClient;
+    
+    /**
+     * 异步HTTP客户端的获取方式，未配置时不支持异步请求
+     */
+    private final Supplier<CloseableHttpAsyncClient> asyncHttpClientSupplier;
+    
+    /**
+     * 已获取的异步HTTP客户端，首次异步请求前为null
+     */
+    private volatile CloseableHttpAsyncClient asyncHttpClient;
+    
+    /**
+     * 构造方法
+     *
+     * @param httpClient 同步HTTP客户端
+     */
+    public ApacheWeChatTransport(CloseableHttpClient httpClient) {
+        this(httpClient, (Supplier<CloseableHttpAsyncClient>) null);
+    }
+    
+    /**
+     * 构造方法
+     *
+     * @param httpClient 同步HTTP客户端
+     * @param asyncHttpClient 已启动的异步HTTP客户端，可为null
+     */
+    public ApacheWeChatTransport(CloseableHttpClient httpClient, CloseableHttpAsyncClient asyncHttpClient) {
+        this(httpClient, asyncHttpClient != null ? () -> asyncHttpClient : null);
+    }
+    
+    /**
+     * 构造方法
+     * 首次异步请求时才通过asyncHttpClientSupplier获取异步HTTP客户端，只使用同步发送时不会创建
+     *
+     * @param httpClient 同步HTTP客户端
+     * @param asyncHttpClientSupplier 返回已启动的异步HTTP客户端，只调用一次，可为null
+     */
+    public ApacheWeChatTransport(CloseableHttpClient httpClient,
+                                 Supplier<CloseableHttpAsyncClient> asyncHttpClientSupplier) {
+        this.httpClient = httpClient;
+        this.asyncHttpClientSupplier = asyncHttpClientSupplier;
+    }
+    
+    @Override
+    public WeChatHttpResponse execute(WeChatHttpRequest request) throws IOException {
+        try (CloseableHttpResponse response = httpClient.execute(toApacheRequest(request))) {
+            return toResponse(response);
+        }
+    }
+    
+    @Override
+    public CompletableFuture<WeChatHttpResponse> executeAsync(WeChatHttpRequest request) {
+        CompletableFuture<WeChatHttpResponse> future = new CompletableFuture<>();
+        if (asyncHttpClientSupplier == null) {
+            future.completeExceptionally(new WeChatNoticeException("未配置异步HTTP客户端，无法异步发送请求"));
+            return future;
+        }
+        CloseableHttpAsyncClient client;
+        try {
+            client = asyncHttpClient();
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        
+        client.execute(toApacheRequest(request), new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse response) {
+                try {
+                    future.complete(toResponse(response));
+                } catch (IOException | RuntimeException e) {
+                    failed(e);
+                }
+            }
+            
+            @Override
+            public void failed(Exception e) {
+                future.completeExceptionally(e);
+            }
+            
+            @Override
+            public void cancelled() {
+                future.completeExceptionally(new WeChatNoticeException("HTTP请求被取消"));
+            }
+        });
+        return future;
+    }
+    
+    @Override
+    public boolean isAsyncStarted() {
+        return asyncHttpClient != null;
+    }
+    
+    private CloseableHttpAsyncClient asyncHttpClient() {
+        CloseableHttpAsyncClient client = asyncHttpClient;
+        if (client == null) {
+            synchronized (this) {
+                client = asyncHttpClient;
+                if (client == null) {
+                    client = asyncHttpClientSupplier.get();
+                    asyncHttpClient = client;
+                }
+            }
+        }
+        return client;
+    }
+    
+    private static HttpRequestBase toApacheRequest(WeChatHttpRequest request) {
+        HttpRequestBase apacheRequest;
+        if (WeChatHttpRequest.POST.equals(request.getMethod())) {
+            HttpPost post = new HttpPost(request.getUrl());
+            if (request.getBody() != null) {
+                ContentType contentType = request.getContentType() != null
+                    ? ContentType.parse(request.getContentType()) : ContentType.APPLICATION_JSON;
+                post.setEntity(new ByteArrayEntity(request.getBody(), 0, request.getBodyLength(), contentType));
+            }
+            apacheRequest = post;
+        } else {
+            apacheRequest = new HttpGet(request.getUrl());
+        }
+        apacheRequest.setHeader("User-Agent", "WeChat-Notice-Client/1.0.0");
+        if (request.getContentType() != null) {
+            apacheRequest.setHeader("Content-Type", request.getContentType());
+        }
+        apacheRequest.setConfig(RequestConfig.custom()
+            .setConnectTimeout(request.getConnectTimeout())
+            .setSocketTimeout(request.getReadTimeout())
+            .setConnectionRequestTimeout(request.getConnectionRequestTimeout())
+            .build());
+        return apacheRequest;
+    }
+    
+    private static WeChatHttpResponse toResponse(HttpResponse response) throws IOException {
+        HttpEntity entity = response.getEntity();
+        byte[] body = entity != null ? EntityUtils.toByteArray(entity) : null;
+        return new WeChatHttpResponse(response.getStatusLine().getStatusCode(), body != null ? body : EMPTY_BODY);
+    }
+}
\ No newline at end of file
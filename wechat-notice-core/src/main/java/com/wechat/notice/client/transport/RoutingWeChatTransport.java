@@ -0,0 +1,90 @@
+package com.wechat.notice.client.transport;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 按地址健康状态路由的传输层
+ * 将请求地址中的baseUrl替换为路由器选中的地址，并把耗时与结果反馈给路由器；
+ * 各地址为不同的路由，Apache连接池为每个路由单独维护连接，互不占用
+ *
+ * @author fyf
+ */
+final class RoutingWeChatTransport implements WeChatTransport {
+    
+    /**
+     * 实际发送请求的传输层
+     */
+    private final WeChatTransport delegate;
+    
+    /**
+     * 地址路由器
+     */
+    private final WeChatEndpointRouter router;
+    
+    RoutingWeChatTransport(WeChatTransport delegate, WeChatEndpointRouter router) {
+        this.delegate = delegate;
+        this.router = router;
+    }
+    
+    WeChatTransport getDelegate() {
+        return delegate;
+    }
+    
+    @Override
+    public WeChatHttpResponse execute(WeChatHttpRequest request) throws IOException {
+        if (!isRoutable(request)) {
+            return delegate.execute(request);
+        }
+        WeChatEndpointRouter.Endpoint endpoint = router.select();
+        long start = System.nanoTime();
+        try {
+            WeChatHttpResponse response = delegate.execute(rewrite(request, endpoint));
+            router.record(endpoint, System.nanoTime() - start, isSuccess(response));
+            return response;
+        } catch (IOException | RuntimeException e) {
+            router.record(endpoint, System.nanoTime() - start, false);
+            throw e;
+        }
+    }
+    
+    @Override
+    public CompletableFuture<WeChatHttpResponse> executeAsync(WeChatHttpRequest request) {
+        if (!isRoutable(request)) {
+            return delegate.executeAsync(request);
+        }
+        WeChatEndpointRouter.Endpoint endpoint = router.select();
+        long start = System.nanoTime();
+        CompletableFuture<WeChatHttpResponse> future = new CompletableFuture<>();
+        delegate.executeAsync(rewrite(request, endpoint)).whenComplete((response, error) -> {
+            router.record(endpoint, System.nanoTime() - start, error == null && isSuccess(response));
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(response);
+            }
+        });
+        return future;
+    }
+    
+    @Override
+    public boolean isAsyncStarted() {
+        return delegate.isAsyncStarted();
+    }
+    
+    private boolean isRoutable(WeChatHttpRequest request) {
+        return request.getUrl() != null && request.getUrl().startsWith(router.getLogicalBaseUrl());
+    }
+    
+    private WeChatHttpRequest rewrite(WeChatHttpRequest request, WeChatEndpointRouter.Endpoint endpoint) {
+        String path = request.getUrl().substring(router.getLogicalBaseUrl().length());
+        return request.toBuilder().url(endpoint.getBaseUrl() + path).build();
+    }
+    
+    /**
+     * 5xx响应通常来自出口代理或网关故障，计为该地址的错误
+     */
+    private static boolean isSuccess(WeChatHttpResponse response) {
+        return response.getStatusCode() < 500;
+    }
+}
\ No newline at end of file
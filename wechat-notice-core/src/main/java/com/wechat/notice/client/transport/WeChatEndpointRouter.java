@@ -0,0 +1,308 @@
+package com.wechat.notice.client.transport;
+
+import com.wechat.notice.config.WeChatNoticeProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * API地址路由器
+ * 配置多个baseUrls时，按指数加权的延迟与错误率为每个地址打分，请求发往得分最低的健康地址；
+ * 错误率达到阈值的地址被暂时摘除，到期后放行一个探测请求，成功即恢复。
+ * 长时间未被选中的健康地址同样定期放行一个请求，使其统计不过时。
+ * Token、票据与消息发送共用同一个路由器，共享各地址的健康状态
+ *
+ * @author fyf
+ */
+@Slf4j
+public class WeChatEndpointRouter {
+    
+    /**
+     * 指数加权的新样本权重
+     */
+    private static final double EWMA_WEIGHT = 0.3;
+    
+    /**
+     * 打分时错误率的上限，避免除零
+     */
+    private static final double MAX_SCORED_ERROR_RATE = 0.9;
+    
+    /**
+     * 错误率为1时附加的分数（毫秒），连接被拒绝等快速失败的地址不会因延迟低而被优先选中
+     */
+    private static final double ERROR_PENALTY_MILLIS = 1000;
+    
+    /**
+     * 健康状态标记
+     */
+    private static final long HEALTHY = Long.MIN_VALUE;
+    
+    /**
+     * 请求中使用的基础地址（baseUrl），路由时替换为选中的地址
+     */
+    private final String logicalBaseUrl;
+    
+    /**
+     * 全部地址
+     */
+    private final Endpoint[] endpoints;
+    
+    /**
+     * 摘除阈值
+     */
+    private final double ejectionErrorRate;
+    
+    /**
+     * 摘除时长（纳秒）
+     */
+    private final long ejectionNanos;
+    
+    /**
+     * 健康地址的探测间隔（纳秒）
+     */
+    private final long probeIntervalNanos;
+    
+    /**
+     * 构造方法
+     *
+     * @param properties 微信通知配置属性
+     */
+    public WeChatEndpointRouter(WeChatNoticeProperties properties) {
+        WeChatNoticeProperties.Api api = properties.getApi();
+        this.logicalBaseUrl = normalize(api.getBaseUrl());
+        List<String> baseUrls = endpointUrls(api);
+        long now = System.nanoTime();
+        this.endpoints = new Endpoint[baseUrls.size()];
+        for (int i = 0; i < endpoints.length; i++) {
+            endpoints[i] = new Endpoint(baseUrls.get(i), now);
+        }
+        this.ejectionErrorRate = api.getEndpointEjectionErrorRate();
+        this.ejectionNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(api.getEndpointEjectionTime(), 0));
+        this.probeIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(api.getEndpointProbeInterval(), 0));
+    }
+    
+    /**
+     * 获取配置的全部地址，未配置baseUrls时只有baseUrl
+     *
+     * @param api API配置
+     * @return 去重后的地址列表
+     */
+    public static List<String> endpointUrls(WeChatNoticeProperties.Api api) {
+        Set<String> urls = new LinkedHashSet<>();
+        if (api.getBaseUrls() != null) {
+            for (String url : api.getBaseUrls()) {
+                if (url != null && !url.trim().isEmpty()) {
+                    urls.add(normalize(url.trim()));
+                }
+            }
+        }
+        if (urls.isEmpty()) {
+            urls.add(normalize(api.getBaseUrl()));
+        }
+        return new ArrayList<>(urls);
+    }
+    
+    /**
+     * 为传输层加上地址路由，只有一个地址时原样返回
+     *
+     * @param transport 传输层
+     * @return 按健康状态选择地址的传输层
+     */
+    public WeChatTransport route(WeChatTransport transport) {
+        return endpoints.length > 1 ? new RoutingWeChatTransport(transport, this) : transport;
+    }
+    
+    /**
+     * 获取不经过地址路由的传输层
+     * 请求按原地址发送，耗时与结果不计入各地址的统计，用于连接预热等不代表业务流量的请求
+     *
+     * @param transport 传输层，可能已由route加上路由
+     * @return 实际发送请求的传输层
+     */
+    public static WeChatTransport unrouted(WeChatTransport transport) {
+        return transport instanceof RoutingWeChatTransport ? ((RoutingWeChatTransport) transport).getDelegate()
+            : transport;
+    }
+    
+    /**
+     * 获取全部地址的当前状态
+     *
+     * @return 地址列表
+     */
+    public List<Endpoint> getEndpoints() {
+        return Collections.unmodifiableList(Arrays.asList(endpoints));
+    }
+    
+    String getLogicalBaseUrl() {
+        return logicalBaseUrl;
+    }
+    
+    /**
+     * 选择本次请求使用的地址
+     *
+     * @return 地址
+     */
+    Endpoint select() {
+        long now = System.nanoTime();
+        Endpoint best = null;
+        double bestScore = Double.MAX_VALUE;
+        Endpoint earliest = null;
+        long earliestUntil = 0;
+        for (Endpoint endpoint : endpoints) {
+            long ejectedUntil = endpoint.ejectedUntil.get();
+            if (ejectedUntil != HEALTHY) {
+                // 摘除到期后放行一个探测请求，同时顺延摘除时间，其余请求继续绕开该地址
+                if (now - ejectedUntil >= 0
+                        && endpoint.ejectedUntil.compareAndSet(ejectedUntil, now + ejectionNanos)) {
+                    endpoint.lastSelected.lazySet(now);
+                    return endpoint;
+                }
+                if (earliest == null || ejectedUntil - earliestUntil < 0) {
+                    earliest = endpoint;
+                    earliestUntil = ejectedUntil;
+                }
+                continue;
+            }
+            long lastSelected = endpoint.lastSelected.get();
+            if (now - lastSelected >= probeIntervalNanos && endpoint.lastSelected.compareAndSet(lastSelected, now)) {
+                return endpoint;
+            }
+            double score = endpoint.score();
+            if (score < bestScore) {
+                bestScore = score;
+                best = endpoint;
+            }
+        }
+        
+        // 全部被摘除时选择最早到期的地址，不直接失败
+        Endpoint selected = best != null ? best : earliest;
+        selected.lastSelected.lazySet(now);
+        return selected;
+    }
+    
+    /**
+     * 记录一次请求结果
+     *
+     * @param endpoint 地址
+     * @param latencyNanos 请求耗时（纳秒）
+     * @param success 是否成功，网络异常与5xx响应视为失败
+     */
+    void record(Endpoint endpoint, long latencyNanos, boolean success) {
+        double errorRate = endpoint.update(latencyNanos / 1_000_000.0, success);
+        long ejectedUntil = endpoint.ejectedUntil.get();
+        if (success) {
+            if (ejectedUntil != HEALTHY && endpoint.ejectedUntil.compareAndSet(ejectedUntil, HEALTHY)) {
+                endpoint.resetErrorRate();
+                log.info("API地址探测成功，恢复使用: baseUrl={}", endpoint.baseUrl);
+            }
+        } else if (ejectedUntil == HEALTHY && errorRate >= ejectionErrorRate
+                && endpoint.ejectedUntil.compareAndSet(HEALTHY, System.nanoTime() + ejectionNanos)) {
+            log.warn("API地址错误率过高，暂时摘除: baseUrl={}, errorRate={}", endpoint.baseUrl,
+                String.format("%.2f", errorRate));
+        }
+    }
+    
+    private static String normalize(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+    
+    /**
+     * API地址及其健康状态
+     */
+    public static final class Endpoint {
+        
+        /**
+         * 基础地址
+         */
+        private final String baseUrl;
+        
+        /**
+         * 摘除到期时刻（纳秒），健康时为HEALTHY
+         */
+        private final AtomicLong ejectedUntil = new AtomicLong(HEALTHY);
+        
+        /**
+         * 最近一次被选中的时刻（纳秒）
+         */
+        private final AtomicLong lastSelected;
+        
+        /**
+         * 指数加权延迟（毫秒），尚无样本时为0，新地址因此优先被选中
+         */
+        private volatile double latencyMillis;
+        
+        /**
+         * 指数加权错误率
+         */
+        private volatile double errorRate;
+        
+        private Endpoint(String baseUrl, long now) {
+            this.baseUrl = baseUrl;
+            this.lastSelected = new AtomicLong(now);
+        }
+        
+        /**
+         * 获取基础地址
+         *
+         * @return 基础地址
+         */
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+        
+        /**
+         * 获取指数加权延迟
+         *
+         * @return 延迟（毫秒）
+         */
+        public double getLatencyMillis() {
+            return latencyMillis;
+        }
+        
+        /**
+         * 获取指数加权错误率
+         *
+         * @return 错误率，0到1之间
+         */
+        public double getErrorRate() {
+            return errorRate;
+        }
+        
+        /**
+         * 是否已被摘除
+         *
+         * @return true-已摘除，false-健康
+         */
+        public boolean isEjected() {
+            return ejectedUntil.get() != HEALTHY;
+        }
+        
+        private double score() {
+            double errors = errorRate;
+            return latencyMillis / (1 - Math.min(errors, MAX_SCORED_ERROR_RATE)) + errors * ERROR_PENALTY_MILLIS;
+        }
+        
+        private synchronized double update(double latency, boolean success) {
+            latencyMillis = latencyMillis == 0 ? latency : latencyMillis + EWMA_WEIGHT * (latency - latencyMillis);
+            errorRate = errorRate + EWMA_WEIGHT * ((success ? 0 : 1) - errorRate);
+            return errorRate;
+        }
+        
+        private synchronized void resetErrorRate() {
+            errorRate = 0;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%s(latency=%.1fms, errorRate=%.2f, ejected=%s)",
+                baseUrl, latencyMillis, errorRate, isEjected());
+        }
+    }
+}
\ No newline at end of file
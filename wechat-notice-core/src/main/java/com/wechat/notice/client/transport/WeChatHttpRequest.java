@@ -0,0 +1,106 @@
+package com.wechat.notice.client.transport;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * HTTP请求
+ * 请求体为已序列化的字节，可只取数组前bodyLength个字节以免复制；超时由调用方按配置和剩余截止时间计算
+ *
+ * @author fyf
+ */
+@Getter
+@Builder(toBuilder = true)
+public class WeChatHttpRequest {
+    
+    /**
+     * GET请求方法
+     */
+    public static final String GET = "GET";
+    
+    /**
+     * POST请求方法
+     */
+    public static final String POST = "POST";
+    
+    /**
+     * 请求方法，GET或POST
+     */
+    private final String method;
+    
+    /**
+     * 完整请求地址
+     */
+    private final String url;
+    
+    /**
+     * 请求体内容类型，无请求体时为null
+     */
+    private final String contentType;
+    
+    /**
+     * 请求体，无请求体时为null
+     */
+    private final byte[] body;
+    
+    /**
+     * 请求体有效长度，负数表示整个body数组
+     */
+    @Builder.Default
+    private final int bodyLength = -1;
+    
+    /**
+     * 连接超时（毫秒），0表示不限制
+     */
+    private final int connectTimeout;
+    
+    /**
+     * 读取超时（毫秒），0表示不限制
+     */
+    private final int readTimeout;
+    
+    /**
+     * 从连接池获取连接的超时（毫秒），0表示不限制；不使用连接池的实现可忽略
+     */
+    private final int connectionRequestTimeout;
+    
+    /**
+     * 获取请求体有效长度
+     *
+     * @return 有效字节数，无请求体时为0
+     */
+    public int getBodyLength() {
+        if (body == null) {
+            return 0;
+        }
+        return bodyLength < 0 ? body.length : bodyLength;
+    }
+    
+    /**
+     * 请求构建器
+     */
+    public static class WeChatHttpRequestBuilder {
+        
+        /**
+         * 设置请求体为整个数组
+         *
+         * @param body 请求体数组
+         * @return 构建器
+         */
+        public WeChatHttpRequestBuilder body(byte[] body) {
+            this.body = body;
+            return this;
+        }
+        
+        /**
+         * 设置请求体为数组的前length个字节
+         *
+         * @param body 请求体数组
+         * @param length 有效长度
+         * @return 构建器
+         */
+        public WeChatHttpRequestBuilder body(byte[] body, int length) {
+            return body(body).bodyLength(length);
+        }
+    }
+}
\ No newline at end of file
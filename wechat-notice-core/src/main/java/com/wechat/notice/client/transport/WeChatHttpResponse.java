@@ -0,0 +1,24 @@
+package com.wechat.notice.client.transport;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * HTTP响应
+ *
+ * @author fyf
+ */
+@Getter
+@AllArgsConstructor
+public class WeChatHttpResponse {
+    
+    /**
+     * HTTP状态码
+     */
+    private final int statusCode;
+    
+    /**
+     * 响应体，无响应体时为空数组
+     */
+    private final byte[] body;
+}
@@ -0,0 +1,42 @@
+package com.wechat.notice.client.transport;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * HTTP传输层接口
+ * WeChatApiClient、WeChatTokenManager与WeChatTicketManager通过该接口访问企业微信，
+ * 默认实现基于Apache HttpClient，可替换为OkHttp、JDK HttpClient、Netty等实现
+ *
+ * @author fyf
+ */
+public interface WeChatTransport {
+    
+    /**
+     * 同步执行请求
+     *
+     * @param request HTTP请求
+     * @return HTTP响应
+     * @throws IOException 网络异常时抛出；仅请求确定未发出的异常（如ConnectException）会被重试，读超时应抛出SocketTimeoutException
+     */
+    WeChatHttpResponse execute(WeChatHttpRequest request) throws IOException;
+    
+    /**
+     * 异步执行请求，等待响应期间不应占用调用线程
+     *
+     * @param request HTTP请求
+     * @return HTTP响应，网络异常时以IOException（可被WeChatNoticeException包装）异常完成
+     */
+    CompletableFuture<WeChatHttpResponse> executeAsync(WeChatHttpRequest request);
+    
+    /**
+     * 异步客户端是否已启动
+     * 连接预热器只在异步客户端已启动时预热异步连接，避免为只同步发送的应用启动异步客户端；
+     * 同步与异步请求共用连接的实现无需覆盖
+     *
+     * @return true-已启动，false-未启动或与同步请求共用连接
+     */
+    default boolean isAsyncStarted() {
+        return false;
+    }
+}
\ No newline at end of file
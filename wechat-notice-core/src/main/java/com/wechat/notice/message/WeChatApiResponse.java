@@ -5,7 +5,7 @@ import lombok.Data;
 
 /**
  * 微信API响应实体
- * 
+ *
  * @author fyf
  */
 @Data
@@ -37,4 +37,9 @@ public class WeChatApiResponse {
      */
     @JsonProperty("expires_in")
     private Integer expiresIn;
+    
+    /**
+     * JS-SDK票据
+     */
+    private String ticket;
 }
\ No newline at end of file
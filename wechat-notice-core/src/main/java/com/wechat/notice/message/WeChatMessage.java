@@ -101,11 +101,6 @@ public class WeChatMessage {
      * 获取消息类型枚举
      */
     public MessageType getMsgTypeEnum() {
-        for (MessageType type : MessageType.values()) {
-            if (type.getCode().equals(this.msgType)) {
-                return type;
-            }
-        }
-        return null;
+        return MessageType.of(this.msgType);
     }
 }
\ No newline at end of file
@@ -7,7 +7,7 @@ import lombok.NoArgsConstructor;
 
 /**
  * 微信消息发送结果
- * 
+ *
  * @author fyf
  */
 @Data
@@ -41,6 +41,27 @@ public class WeChatMessageResult {
      */
     private long timestamp;
     
+    /**
+     * 是否使用了已过期的Token发送
+     * Token刷新临时失败、处于宽限期内时为true，可用于告警
+     */
+    private boolean staleToken;
+    
+    /**
+     * 不合法的成员ID，多个以'|'分隔，接收人部分无效时企业微信仍会返回成功
+     */
+    private String invalidUser;
+    
+    /**
+     * 不合法的部门ID，多个以'|'分隔
+     */
+    private String invalidParty;
+    
+    /**
+     * 不合法的标签ID，多个以'|'分隔
+     */
+    private String invalidTag;
+    
     /**
      * 创建成功结果
      *
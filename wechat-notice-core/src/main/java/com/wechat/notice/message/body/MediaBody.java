@@ -0,0 +1,24 @@
+package com.wechat.notice.message.body;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 媒体类消息体
+ * 用于image、voice与file消息
+ *
+ * @author fyf
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaBody {
+    
+    /**
+     * 媒体文件ID，通过上传临时素材接口获取
+     */
+    @JsonProperty("media_id")
+    private String mediaId;
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.wechat.notice.message.body;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 文本类消息体
+ * 用于text与markdown消息
+ *
+ * @author fyf
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TextBody {
+    
+    /**
+     * 消息内容
+     */
+    private String content;
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.wechat.notice.message.body;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 文本卡片消息体
+ *
+ * @author fyf
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TextCardBody {
+    
+    /**
+     * 标题
+     */
+    private String title;
+    
+    /**
+     * 描述
+     */
+    private String description;
+    
+    /**
+     * 点击后跳转的链接
+     */
+    private String url;
+    
+    /**
+     * 按钮文字
+     */
+    private String btntxt;
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.wechat.notice.message.body;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 视频消息体
+ *
+ * @author fyf
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class VideoBody {
+    
+    /**
+     * 视频媒体文件ID，通过上传临时素材接口获取
+     */
+    @JsonProperty("media_id")
+    private String mediaId;
+    
+    /**
+     * 视频消息的标题，可选
+     */
+    private String title;
+    
+    /**
+     * 视频消息的描述，可选
+     */
+    private String description;
+}
\ No newline at end of file
@@ -2,6 +2,9 @@ package com.wechat.notice.message.enums;
 
 import lombok.Getter;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * 微信消息类型枚举
  * 
@@ -59,6 +62,22 @@ public enum MessageType {
      */
     TEMPLATE_CARD("template_card", "模板卡片消息");
     
+    /**
+     * 全部枚举值，避免每次查找都复制values()数组
+     */
+    private static final MessageType[] VALUES = values();
+    
+    /**
+     * 消息类型代码索引
+     */
+    private static final Map<String, MessageType> BY_CODE = new HashMap<>();
+    
+    static {
+        for (MessageType type : VALUES) {
+            BY_CODE.put(type.code, type);
+        }
+    }
+    
     /**
      * 消息类型代码
      */
@@ -79,5 +98,24 @@ public enum MessageType {
         this.code = code;
         this.description = description;
     }
+    
+    /**
+     * 根据消息类型代码查找枚举
+     * 消息类型通常来自字面量或getCode()，先按引用比较命中即返回，不必计算哈希
+     *
+     * @param code 消息类型代码
+     * @return 对应的枚举，未知类型返回null
+     */
+    public static MessageType of(String code) {
+        if (code == null) {
+            return null;
+        }
+        for (MessageType type : VALUES) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        return BY_CODE.get(code);
+    }
 
 }
\ No newline at end of file
@@ -0,0 +1,228 @@
+package com.wechat.notice.message.enums;
+
+import lombok.Getter;
+
+/**
+ * 企业微信全局错误码枚举
+ * 仅收录组件需要区别处理的错误码，未收录的错误码按不可重试处理；-10000以下为组件本地错误码
+ *
+ * @author fyf
+ */
+@Getter
+public enum WeChatErrorCode {
+    /**
+     * 系统繁忙
+     */
+    SYSTEM_BUSY(-1, "系统繁忙，可稍后重试", Category.RETRYABLE),
+    
+    /**
+     * 不合法的secret参数
+     */
+    INVALID_SECRET(40001, "不合法的secret参数", Category.CREDENTIAL_INVALID),
+    
+    /**
+     * 不合法的CorpID
+     */
+    INVALID_CORP_ID(40013, "不合法的CorpID", Category.CREDENTIAL_INVALID),
+    
+    /**
+     * 缺少corpid参数
+     */
+    MISSING_CORP_ID(41002, "缺少corpid参数", Category.CREDENTIAL_INVALID),
+    
+    /**
+     * 缺少secret参数
+     */
+    MISSING_SECRET(41004, "缺少secret参数", Category.CREDENTIAL_INVALID),
+    
+    /**
+     * 不合法的access_token
+     */
+    INVALID_ACCESS_TOKEN(40014, "不合法的access_token", Category.TOKEN_INVALID),
+    
+    /**
+     * 缺少access_token参数
+     */
+    MISSING_ACCESS_TOKEN(41001, "缺少access_token参数", Category.TOKEN_INVALID),
+    
+    /**
+     * access_token已过期
+     */
+    ACCESS_TOKEN_EXPIRED(42001, "access_token已过期", Category.TOKEN_INVALID),
+    
+    /**
+     * 接口调用超过频率限制
+     */
+    API_FREQ_OUT_OF_LIMIT(45009, "接口调用超过限制", Category.RETRYABLE),
+    
+    /**
+     * 接口并发调用超过限制
+     */
+    API_CONCURRENT_OUT_OF_LIMIT(45033, "接口并发调用超过限制", Category.RETRYABLE),
+    
+    /**
+     * 不合法的消息类型
+     */
+    INVALID_MSG_TYPE(40008, "不合法的消息类型", Category.PERMANENT),
+    
+    /**
+     * 不合法的agentid
+     */
+    INVALID_AGENT_ID(40056, "不合法的agentid", Category.PERMANENT),
+    
+    /**
+     * 文本消息content参数为空
+     */
+    EMPTY_CONTENT(44004, "文本消息content参数为空", Category.PERMANENT),
+    
+    /**
+     * API接口无权限调用
+     */
+    API_FORBIDDEN(48002, "API接口无权限调用", Category.PERMANENT),
+    
+    /**
+     * 不安全的访问IP
+     */
+    IP_NOT_ALLOWED(60020, "不安全的访问IP", Category.PERMANENT),
+    
+    /**
+     * 接收人全部非法或无权限
+     */
+    ALL_RECEIVERS_INVALID(81013, "UserID、部门ID、标签ID全部非法或无权限", Category.PERMANENT),
+    
+    /**
+     * 熔断器已打开，组件未发送请求
+     */
+    CIRCUIT_OPEN(-10001, "熔断器已打开，请求未发送", Category.REJECTED),
+    
+    /**
+     * 等待并发许可超过截止时间，组件未发送请求
+     */
+    CONCURRENCY_LIMITED(-10002, "等待发送并发许可超时，请求未发送", Category.REJECTED);
+    
+    /**
+     * 枚举值缓存，避免每次查找时复制数组
+     */
+    private static final WeChatErrorCode[] VALUES = values();
+    
+    /**
+     * 错误码
+     */
+    private final int code;
+    
+    /**
+     * 错误描述
+     */
+    private final String description;
+    
+    /**
+     * 错误分类，决定组件的处理方式
+     */
+    private final Category category;
+    
+    /**
+     * 构造方法
+     *
+     * @param code 错误码
+     * @param description 错误描述
+     * @param category 错误分类
+     */
+    WeChatErrorCode(int code, String description, Category category) {
+        this.code = code;
+        this.description = description;
+        this.category = category;
+    }
+    
+    /**
+     * 根据错误码查找枚举
+     *
+     * @param code 错误码
+     * @return 对应的枚举，未收录时返回null
+     */
+    public static WeChatErrorCode of(Integer code) {
+        if (code == null) {
+            return null;
+        }
+        for (WeChatErrorCode errorCode : VALUES) {
+            if (errorCode.code == code) {
+                return errorCode;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * 判断错误码是否表示access_token已失效
+     *
+     * @param code 错误码
+     * @return true-Token已失效，false-其他错误
+     */
+    public static boolean isTokenInvalid(Integer code) {
+        return isCategory(code, Category.TOKEN_INVALID);
+    }
+    
+    /**
+     * 判断错误码是否为可重试的临时性错误
+     *
+     * @param code 错误码
+     * @return true-临时性错误，false-其他错误
+     */
+    public static boolean isRetryable(Integer code) {
+        return isCategory(code, Category.RETRYABLE);
+    }
+    
+    /**
+     * 判断错误码是否表示企业ID或Secret配置错误
+     *
+     * @param code 错误码
+     * @return true-凭证错误，false-其他错误
+     */
+    public static boolean isCredentialInvalid(Integer code) {
+        return isCategory(code, Category.CREDENTIAL_INVALID);
+    }
+    
+    /**
+     * 判断错误码是否表示组件在本地拒绝发送
+     *
+     * @param code 错误码
+     * @return true-请求未发出，false-其他错误
+     */
+    public static boolean isRejected(Integer code) {
+        return isCategory(code, Category.REJECTED);
+    }
+    
+    private static boolean isCategory(Integer code, Category category) {
+        WeChatErrorCode errorCode = of(code);
+        return errorCode != null && errorCode.category == category;
+    }
+    
+    /**
+     * 错误分类
+     */
+    public enum Category {
+        /**
+         * access_token已失效，需要重新获取
+         */
+        TOKEN_INVALID,
+        
+        /**
+         * 企业ID或Secret配置错误，修正配置前重试不会成功
+         */
+        CREDENTIAL_INVALID,
+        
+        /**
+         * 临时性错误，稍后重试可能成功
+         */
+        RETRYABLE,
+        
+        /**
+         * 请求或配置错误，重试不会成功
+         */
+        PERMANENT,
+        
+        /**
+         * 组件在本地拒绝发送，请求未到达企业微信
+         */
+        REJECTED
+    }
+}
\ No newline at end of file
@@ -1,9 +1,11 @@
 package com.wechat.notice.service;
 
+import com.wechat.notice.client.AppHandle;
 import com.wechat.notice.message.WeChatMessage;
 import com.wechat.notice.message.WeChatMessageResult;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 微信通知服务接口
@@ -48,6 +50,24 @@ public interface WeChatNoticeService {
      */
     WeChatMessageResult sendMessage(WeChatMessage message, String appName);
     
+    /**
+     * 发送消息（指定应用句柄）
+     * 高频发送时先通过getAppHandle获取句柄并复用，发送前不再查找配置或计算缓存Key
+     *
+     * @param message   消息对象
+     * @param appHandle 应用句柄
+     * @return 发送结果
+     */
+    WeChatMessageResult sendMessage(WeChatMessage message, AppHandle appHandle);
+    
+    /**
+     * 获取应用句柄
+     *
+     * @param appName 应用名称
+     * @return 应用句柄
+     */
+    AppHandle getAppHandle(String appName);
+    
     /**
      * 批量发送消息
      *
@@ -75,4 +95,69 @@ public interface WeChatNoticeService {
      * @return 发送结果
      */
     WeChatMessageResult sendMarkdown(String content, String toUser, String appName);
+    
+    /**
+     * 异步发送文本消息
+     * 以下异步方法等待企业微信响应期间不占用调用线程，发送异常时以失败结果完成而非异常完成
+     *
+     * @param content 消息内容
+     * @param toUser  接收用户ID
+     * @return 发送结果
+     */
+    CompletableFuture<WeChatMessageResult> sendTextAsync(String content, String toUser);
+    
+    /**
+     * 异步发送文本消息（指定应用）
+     *
+     * @param content 消息内容
+     * @param toUser  接收用户ID
+     * @param appName 应用名称
+     * @return 发送结果
+     */
+    CompletableFuture<WeChatMessageResult> sendTextAsync(String content, String toUser, String appName);
+    
+    /**
+     * 异步发送消息（使用默认应用）
+     *
+     * @param message 消息对象
+     * @return 发送结果
+     */
+    CompletableFuture<WeChatMessageResult> sendMessageAsync(WeChatMessage message);
+    
+    /**
+     * 异步发送消息（指定应用）
+     *
+     * @param message 消息对象
+     * @param appName 应用名称
+     * @return 发送结果
+     */
+    CompletableFuture<WeChatMessageResult> sendMessageAsync(WeChatMessage message, String appName);
+    
+    /**
+     * 异步发送消息（指定应用句柄）
+     *
+     * @param message   消息对象
+     * @param appHandle 应用句柄
+     * @return 发送结果
+     */
+    CompletableFuture<WeChatMessageResult> sendMessageAsync(WeChatMessage message, AppHandle appHandle);
+    
+    /**
+     * 异步发送Markdown消息
+     *
+     * @param content Markdown内容
+     * @param toUser  接收用户ID
+     * @return 发送结果
+     */
+    CompletableFuture<WeChatMessageResult> sendMarkdownAsync(String content, String toUser);
+    
+    /**
+     * 异步发送Markdown消息（指定应用）
+     *
+     * @param content Markdown内容
+     * @param toUser  接收用户ID
+     * @param appName 应用名称
+     * @return 发送结果
+     */
+    CompletableFuture<WeChatMessageResult> sendMarkdownAsync(String content, String toUser, String appName);
 }
\ No newline at end of file
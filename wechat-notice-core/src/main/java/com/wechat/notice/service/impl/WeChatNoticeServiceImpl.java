@@ -1,7 +1,7 @@
 package com.wechat.notice.service.impl;
 
+import com.wechat.notice.client.AppHandle;
 import com.wechat.notice.client.WeChatApiClient;
-import com.wechat.notice.config.WeChatAppConfig;
 import com.wechat.notice.config.WeChatNoticeProperties;
 import com.wechat.notice.message.WeChatMessage;
 import com.wechat.notice.message.WeChatMessageResult;
@@ -13,6 +13,10 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 微信通知服务实现
@@ -38,6 +42,11 @@ public class WeChatNoticeServiceImpl implements WeChatNoticeService {
      */
     private final WeChatNoticeProperties properties;
     
+    /**
+     * 已解析的应用句柄，Key为应用名称
+     */
+    private final Map<String, AppHandle> appHandles = new ConcurrentHashMap<>();
+    
     @Override
     public WeChatMessageResult sendText(String content, String toUser) {
         return sendText(content, toUser, properties.getDefaultApp());
@@ -60,18 +69,28 @@ public class WeChatNoticeServiceImpl implements WeChatNoticeService {
     
     @Override
     public WeChatMessageResult sendMessage(WeChatMessage message, String appName) {
+        AppHandle appHandle;
+        try {
+            appHandle = getAppHandle(appName);
+        } catch (Exception e) {
+            log.error("发送微信消息异常: appName={}, message={}", appName, message, e);
+            return WeChatMessageResult.failure(-1, "发送消息异常: " + e.getMessage());
+        }
+        return sendMessage(message, appHandle);
+    }
+    
+    @Override
+    public WeChatMessageResult sendMessage(WeChatMessage message, AppHandle appHandle) {
+        String appName = appHandle.getAppName();
         try {
             log.debug("开始发送微信消息: appName={}, msgType={}, toUser={}", 
                 appName, message.getMsgType(), message.getToUser());
             
-            WeChatAppConfig appConfig = appConfigService.getApp(appName);
-            String accessToken = apiClient.getAccessToken(appConfig);
-            
             // 设置agentId
-            message.setAgentId(appConfig.getAgentId());
+            message.setAgentId(appHandle.getAppConfig().getAgentId());
             
-            // 发送消息
-            WeChatMessageResult result = apiClient.sendMessage(accessToken, message);
+            // 发送消息，Token失效时由客户端自动刷新并重发
+            WeChatMessageResult result = apiClient.sendMessage(appHandle, message);
             
             if (result.isSuccess()) {
                 log.info("微信消息发送成功: appName={}, msgId={}", appName, result.getMsgId());
@@ -86,6 +105,19 @@ public class WeChatNoticeServiceImpl implements WeChatNoticeService {
         }
     }
     
+    @Override
+    public AppHandle getAppHandle(String appName) {
+        AppHandle appHandle = appHandles.get(appName);
+        if (appHandle == null) {
+            appHandle = apiClient.resolveHandle(appConfigService.getApp(appName));
+            AppHandle existing = appHandles.putIfAbsent(appName, appHandle);
+            if (existing != null) {
+                appHandle = existing;
+            }
+        }
+        return appHandle;
+    }
+    
     @Override
     public List<WeChatMessageResult> batchSendMessage(List<WeChatMessage> messages, String appName) {
         List<WeChatMessageResult> results = new ArrayList<>();
@@ -138,4 +170,76 @@ public class WeChatNoticeServiceImpl implements WeChatNoticeService {
             .build();
         return sendMessage(message, appName);
     }
+    
+    @Override
+    public CompletableFuture<WeChatMessageResult> sendTextAsync(String content, String toUser) {
+        return sendTextAsync(content, toUser, properties.getDefaultApp());
+    }
+    
+    @Override
+    public CompletableFuture<WeChatMessageResult> sendTextAsync(String content, String toUser, String appName) {
+        WeChatMessage message = WeChatMessage.builder()
+            .msgType(MessageType.TEXT.getCode())
+            .content(content)
+            .toUser(toUser)
+            .build();
+        return sendMessageAsync(message, appName);
+    }
+    
+    @Override
+    public CompletableFuture<WeChatMessageResult> sendMessageAsync(WeChatMessage message) {
+        return sendMessageAsync(message, properties.getDefaultApp());
+    }
+    
+    @Override
+    public CompletableFuture<WeChatMessageResult> sendMessageAsync(WeChatMessage message, String appName) {
+        AppHandle appHandle;
+        try {
+            appHandle = getAppHandle(appName);
+        } catch (Exception e) {
+            log.error("发送微信消息异常: appName={}, message={}", appName, message, e);
+            return CompletableFuture.completedFuture(WeChatMessageResult.failure(-1, "发送消息异常: " + e.getMessage()));
+        }
+        return sendMessageAsync(message, appHandle);
+    }
+    
+    @Override
+    public CompletableFuture<WeChatMessageResult> sendMessageAsync(WeChatMessage message, AppHandle appHandle) {
+        String appName = appHandle.getAppName();
+        log.debug("开始异步发送微信消息: appName={}, msgType={}, toUser={}", 
+            appName, message.getMsgType(), message.getToUser());
+        
+        // 设置agentId
+        message.setAgentId(appHandle.getAppConfig().getAgentId());
+        
+        return apiClient.sendMessageAsync(appHandle, message).handle((result, e) -> {
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                log.error("发送微信消息异常: appName={}, message={}", appName, message, cause);
+                return WeChatMessageResult.failure(-1, "发送消息异常: " + cause.getMessage());
+            }
+            if (result.isSuccess()) {
+                log.info("微信消息发送成功: appName={}, msgId={}", appName, result.getMsgId());
+            } else {
+                log.warn("微信消息发送失败: appName={}, errCode={}, errMsg={}", 
+                    appName, result.getErrCode(), result.getErrMsg());
+            }
+            return result;
+        });
+    }
+    
+    @Override
+    public CompletableFuture<WeChatMessageResult> sendMarkdownAsync(String content, String toUser) {
+        return sendMarkdownAsync(content, toUser, properties.getDefaultApp());
+    }
+    
+    @Override
+    public CompletableFuture<WeChatMessageResult> sendMarkdownAsync(String content, String toUser, String appName) {
+        WeChatMessage message = WeChatMessage.builder()
+            .msgType(MessageType.MARKDOWN.getCode())
+            .content(content)
+            .toUser(toUser)
+            .build();
+        return sendMessageAsync(message, appName);
+    }
 }
\ No newline at end of file
@@ -1,7 +1,15 @@
 package com.wechat.notice.util;
 
+import com.wechat.notice.exception.WeChatNoticeException;
 import org.apache.commons.codec.digest.DigestUtils;
 
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
 import java.util.Arrays;
 
 /**
@@ -11,6 +19,16 @@ import java.util.Arrays;
  */
 public class SignatureUtil {
     
+    /**
+     * 十六进制字符表
+     */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    
+    /**
+     * 线程本地的JS-SDK签名器，复用摘要实例和缓冲区，高并发签名时不再逐次分配
+     */
+    private static final ThreadLocal<JsapiSigner> JSAPI_SIGNERS = ThreadLocal.withInitial(JsapiSigner::new);
+    
     /**
      * 验证微信签名
      *
@@ -33,4 +51,93 @@ public class SignatureUtil {
         String sha1 = DigestUtils.sha1Hex(content.toString());
         return sha1.equals(signature);
     }
+    
+    /**
+     * 生成JS-SDK签名
+     * 签名串为jsapi_ticket=TICKET&noncestr=NONCESTR&timestamp=TIMESTAMP&url=URL的SHA-1，
+     * wx.config与wx.agentConfig分别传入企业和应用的jsapi_ticket
+     *
+     * @param ticket    jsapi_ticket
+     * @param nonceStr  随机串
+     * @param timestamp 时间戳（秒）
+     * @param url       当前网页URL，不包含#及其后面部分
+     * @return 小写十六进制签名
+     */
+    public static String jsapiSignature(String ticket, String nonceStr, long timestamp, String url) {
+        return JSAPI_SIGNERS.get().sign(ticket, nonceStr, timestamp, url);
+    }
+    
+    /**
+     * JS-SDK签名器，非线程安全，通过ThreadLocal按线程复用
+     */
+    private static final class JsapiSigner {
+        
+        /**
+         * SHA-1摘要长度（字节）
+         */
+        private static final int SHA1_LENGTH = 20;
+        
+        /**
+         * SHA-1摘要实例
+         */
+        private final MessageDigest digest = DigestUtils.getSha1Digest();
+        
+        /**
+         * UTF-8编码器，非法字符按String.getBytes的方式替换
+         */
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        
+        /**
+         * 签名串拼接缓冲
+         */
+        private final StringBuilder content = new StringBuilder(512);
+        
+        /**
+         * 摘要结果缓冲
+         */
+        private final byte[] hash = new byte[SHA1_LENGTH];
+        
+        /**
+         * 十六进制签名缓冲
+         */
+        private final char[] hex = new char[SHA1_LENGTH * 2];
+        
+        /**
+         * 签名串UTF-8编码缓冲，不足时按需扩容
+         */
+        private ByteBuffer buffer = ByteBuffer.allocate(1024);
+        
+        String sign(String ticket, String nonceStr, long timestamp, String url) {
+            content.setLength(0);
+            content.append("jsapi_ticket=").append(ticket)
+                .append("&noncestr=").append(nonceStr)
+                .append("&timestamp=").append(timestamp)
+                .append("&url=").append(url);
+            
+            int maxBytes = (int) Math.ceil(content.length() * (double) encoder.maxBytesPerChar());
+            if (buffer.capacity() < maxBytes) {
+                buffer = ByteBuffer.allocate(maxBytes);
+            }
+            buffer.clear();
+            encoder.reset();
+            encoder.encode(CharBuffer.wrap(content), buffer, true);
+            encoder.flush(buffer);
+            buffer.flip();
+            
+            digest.reset();
+            digest.update(buffer);
+            try {
+                digest.digest(hash, 0, SHA1_LENGTH);
+            } catch (DigestException e) {
+                throw new WeChatNoticeException("JS-SDK签名计算失败", e);
+            }
+            for (int i = 0; i < SHA1_LENGTH; i++) {
+                hex[i * 2] = HEX_DIGITS[(hash[i] >> 4) & 0x0f];
+                hex[i * 2 + 1] = HEX_DIGITS[hash[i] & 0x0f];
+            }
+            return new String(hex);
+        }
+    }
 }
\ No newline at end of file
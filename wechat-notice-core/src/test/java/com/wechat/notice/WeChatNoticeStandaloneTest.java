@@ -111,6 +111,27 @@ public class WeChatNoticeStandaloneTest {
         System.out.println("✅ WeChatNoticeService 初始化成功，完全独立于Spring");
     }
     
+    @Test
+    public void testBootstrap() {
+        WeChatNoticeProperties.AppConfig appConfig = new WeChatNoticeProperties.AppConfig();
+        appConfig.setCorpId("test-corp-id");
+        appConfig.setSecret("test-secret");
+        appConfig.setAgentId(1000001);
+        appConfig.setToken("test-token");
+        appConfig.setAesKey("test-aes-key-1234567890123456789012345678901234567890123");
+        WeChatNoticeProperties properties = WeChatConfigBuilder.create()
+                .defaultApp("default")
+                .addApp("default", appConfig)
+                .build();
+        
+        // 一次调用完成组装，连接池按Api配置创建
+        try (WeChatNotice weChatNotice = WeChatNotice.bootstrap(properties)) {
+            assertNotNull(weChatNotice.getNoticeService());
+            assertNotNull(weChatNotice.getTicketManager());
+            assertNotNull(weChatNotice.getNoticeService().getAppHandle("default"));
+        }
+    }
+    
     @Test
     public void testMessageBuilder() {
         WeChatMessage message = WeChatMessageBuilder.text()
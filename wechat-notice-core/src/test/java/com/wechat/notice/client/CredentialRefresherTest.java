@@ -0,0 +1,121 @@
+package com.wechat.notice.client;
+
+import com.wechat.notice.client.token.AccessToken;
+import com.wechat.notice.client.token.InMemoryTokenStore;
+import com.wechat.notice.config.WeChatConfigBuilder;
+import com.wechat.notice.config.WeChatNoticeProperties;
+import com.wechat.notice.exception.WeChatNoticeException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * CredentialRefresher测试类
+ *
+ * @author fyf
+ */
+public class CredentialRefresherTest {
+    
+    private final InMemoryTokenStore store = new InMemoryTokenStore();
+    private final AtomicInteger fetches = new AtomicInteger();
+    
+    @Test
+    public void testConcurrentRefreshIsSingleFlight() throws Exception {
+        CredentialRefresher refresher = new CredentialRefresher("Token", store, properties(0), null,
+            CredentialRefresher.Listener.NONE);
+        Supplier<AccessToken> fetcher = () -> {
+            sleep(100);
+            return credential(7200_000L);
+        };
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<AccessToken>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return refresher.refresh("key", false, fetcher);
+                }));
+            }
+            start.countDown();
+            for (Future<AccessToken> future : futures) {
+                assertEquals("credential-1", future.get(5, TimeUnit.SECONDS).getToken());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, fetches.get());
+        assertEquals("credential-1", store.get("key").getToken());
+    }
+    
+    @Test
+    public void testBackgroundRefreshAhead() throws Exception {
+        List<String> refreshed = new CopyOnWriteArrayList<>();
+        CredentialRefresher refresher = new CredentialRefresher("Token", store, properties(0.5),
+            WeChatTokenManager.createRefreshScheduler("test-refresher-", 1), new CredentialRefresher.Listener() {
+                @Override
+                public void onRefreshed(String cacheKey, AccessToken credential) {
+                    refreshed.add(credential.getToken());
+                }
+            });
+        try {
+            Supplier<AccessToken> fetcher = () -> credential(400L);
+            refresher.register("key", fetcher);
+            refresher.refresh("key", false, fetcher);
+            
+            // 剩余有效期降到一半时在后台换成新凭据，调用方无需等待
+            Thread.sleep(350);
+            assertTrue(fetches.get() >= 2);
+            assertEquals(refreshed.get(refreshed.size() - 1), store.get("key").getToken());
+        } finally {
+            refresher.close();
+        }
+    }
+    
+    @Test
+    public void testFailedRefreshNotCached() {
+        CredentialRefresher refresher = new CredentialRefresher("票据", store, properties(0), null,
+            CredentialRefresher.Listener.NONE);
+        try {
+            refresher.refresh("key", false, () -> {
+                throw new WeChatNoticeException(40001, "获取票据失败");
+            });
+            fail("刷新失败时应抛出异常");
+        } catch (WeChatNoticeException e) {
+            assertEquals(Integer.valueOf(40001), e.getErrorCode());
+        }
+        assertNull(store.get("key"));
+        assertEquals("credential-1", refresher.refresh("key", false, () -> credential(7200_000L)).getToken());
+    }
+    
+    private AccessToken credential(long lifetimeMillis) {
+        long now = System.currentTimeMillis();
+        return new AccessToken("credential-" + fetches.incrementAndGet(), now, now + lifetimeMillis);
+    }
+    
+    private static WeChatNoticeProperties properties(double refreshAheadRatio) {
+        WeChatNoticeProperties properties = WeChatConfigBuilder.create().build();
+        properties.getApi().setTokenRefreshAheadRatio(refreshAheadRatio);
+        return properties;
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file
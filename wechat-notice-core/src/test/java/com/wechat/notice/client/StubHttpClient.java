@@ -0,0 +1,204 @@
+package com.wechat.notice.client;
+
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.Configurable;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 桩HTTP客户端
+ * 模拟企业微信gettoken、票据与message/send接口，不发送真实请求
+ *
+ * @author fyf
+ */
+public class StubHttpClient extends CloseableHttpClient {
+    
+    /**
+     * gettoken调用次数
+     */
+    final AtomicInteger tokenCalls = new AtomicInteger();
+    
+    /**
+     * 票据接口调用次数
+     */
+    final AtomicInteger ticketCalls = new AtomicInteger();
+    
+    /**
+     * message/send调用次数
+     */
+    final AtomicInteger sendCalls = new AtomicInteger();
+    
+    /**
+     * 收到的message/send请求URI
+     */
+    final List<String> sendUris = new CopyOnWriteArrayList<>();
+    
+    /**
+     * 收到的message/send请求体
+     */
+    final List<String> sendBodies = new CopyOnWriteArrayList<>();
+    
+    /**
+     * 最近一次message/send请求的超时配置
+     */
+    volatile RequestConfig lastSendConfig;
+    
+    /**
+     * 最近一次gettoken请求的超时配置
+     */
+    volatile RequestConfig lastTokenConfig;
+    
+    /**
+     * gettoken响应延迟（毫秒）
+     */
+    volatile long tokenDelayMillis;
+    
+    /**
+     * gettoken返回的有效期（秒）
+     */
+    volatile int expiresIn = 7200;
+    
+    /**
+     * 非空时gettoken固定返回该响应体
+     */
+    volatile String tokenBody;
+    
+    /**
+     * 视为已被吊销的Token，message/send收到该Token时返回42001
+     */
+    volatile String revokedToken;
+    
+    /**
+     * 非空时message/send固定返回该响应体
+     */
+    volatile String sendBody;
+    
+    /**
+     * 剩余的系统繁忙响应次数，大于0时message/send返回-1
+     */
+    final AtomicInteger busyResponses = new AtomicInteger();
+    
+    /**
+     * 剩余的网络异常次数，大于0时message/send抛出IOException
+     */
+    final AtomicInteger sendIoFailures = new AtomicInteger();
+    
+    /**
+     * 非空时message/send在收到请求后固定抛出该异常
+     */
+    volatile IOException sendError;
+    
+    @Override
+    protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context)
+            throws IOException {
+        String uri = request.getRequestLine().getUri();
+        String json;
+        if (uri.contains("/cgi-bin/gettoken")) {
+            json = handleToken(request);
+        } else if (uri.contains("/cgi-bin/get_jsapi_ticket") || uri.contains("/cgi-bin/ticket/get")) {
+            json = handleTicket(uri);
+        } else {
+            json = handleSend(uri, request);
+        }
+        BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        response.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
+        return (CloseableHttpResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{CloseableHttpResponse.class},
+                (proxy, method, args) -> "close".equals(method.getName()) ? null : method.invoke(response, args));
+    }
+    
+    private String handleToken(HttpRequest request) throws IOException {
+        int call = tokenCalls.incrementAndGet();
+        RequestConfig config = request instanceof Configurable ? ((Configurable) request).getConfig() : null;
+        lastTokenConfig = config;
+        if (tokenDelayMillis > 0) {
+            // 与真实客户端一样，响应延迟超过读取超时时抛出SocketTimeoutException
+            int socketTimeout = config != null ? config.getSocketTimeout() : -1;
+            boolean timedOut = socketTimeout > 0 && socketTimeout < tokenDelayMillis;
+            try {
+                Thread.sleep(timedOut ? socketTimeout : tokenDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (timedOut) {
+                throw new SocketTimeoutException("Read timed out");
+            }
+        }
+        if (tokenBody != null) {
+            return tokenBody;
+        }
+        return "{\"errcode\":0,\"errmsg\":\"ok\",\"access_token\":\"token-" + call
+                + "\",\"expires_in\":" + expiresIn + "}";
+    }
+    
+    private String handleTicket(String uri) {
+        int call = ticketCalls.incrementAndGet();
+        String prefix = uri.contains("type=agent_config") ? "agent-ticket-" : "jsapi-ticket-";
+        return "{\"errcode\":0,\"errmsg\":\"ok\",\"ticket\":\"" + prefix + call + "\",\"expires_in\":7200}";
+    }
+    
+    private String handleSend(String uri, HttpRequest request) throws IOException {
+        int call = sendCalls.incrementAndGet();
+        sendUris.add(uri);
+        if (request instanceof Configurable) {
+            lastSendConfig = ((Configurable) request).getConfig();
+        }
+        if (request instanceof HttpEntityEnclosingRequest) {
+            sendBodies.add(EntityUtils.toString(((HttpEntityEnclosingRequest) request).getEntity(),
+                    StandardCharsets.UTF_8));
+        }
+        if (sendIoFailures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            throw new ConnectException("Connection refused");
+        }
+        if (sendError != null) {
+            throw sendError;
+        }
+        if (busyResponses.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            return "{\"errcode\":-1,\"errmsg\":\"system busy\"}";
+        }
+        if (sendBody != null) {
+            return sendBody;
+        }
+        if (revokedToken != null && uri.endsWith("access_token=" + revokedToken)) {
+            return "{\"errcode\":42001,\"errmsg\":\"access_token expired\"}";
+        }
+        return "{\"errcode\":0,\"errmsg\":\"ok\",\"msgid\":\"msg-" + call + "\"}";
+    }
+    
+    @Override
+    public void close() {
+    }
+    
+    /**
+     * 已废弃的接口方法，使用全限定名以免导入语句产生废弃警告
+     */
+    @Override
+    @SuppressWarnings("deprecation")
+    public org.apache.http.params.HttpParams getParams() {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    @SuppressWarnings("deprecation")
+    public org.apache.http.conn.ClientConnectionManager getConnectionManager() {
+        throw new UnsupportedOperationException();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,171 @@
+package com.wechat.notice.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.wechat.notice.config.WeChatAppConfig;
+import com.wechat.notice.config.WeChatConfigBuilder;
+import com.wechat.notice.config.WeChatNoticeProperties;
+import com.wechat.notice.exception.WeChatNoticeException;
+import com.wechat.notice.message.WeChatMessage;
+import com.wechat.notice.message.WeChatMessageResult;
+import com.wechat.notice.message.builder.WeChatMessageBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * WeChatApiClient异步发送测试类
+ * 使用本地HTTP服务模拟企业微信接口，验证真实的异步HTTP客户端调用
+ *
+ * @author fyf
+ */
+public class WeChatApiClientAsyncTest {
+    
+    private HttpServer server;
+    private CloseableHttpClient httpClient;
+    private CloseableHttpAsyncClient asyncHttpClient;
+    private WeChatApiClient apiClient;
+    private WeChatAppConfig appConfig;
+    private final AtomicInteger tokenCalls = new AtomicInteger();
+    private final AtomicInteger sendCalls = new AtomicInteger();
+    private final AtomicInteger busyResponses = new AtomicInteger();
+    private volatile String revokedToken;
+    private volatile boolean truncateResponses;
+    
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/cgi-bin/gettoken", exchange -> respond(exchange,
+                "{\"errcode\":0,\"errmsg\":\"ok\",\"access_token\":\"token-" + tokenCalls.incrementAndGet()
+                        + "\",\"expires_in\":7200}"));
+        server.createContext("/cgi-bin/message/send", exchange -> {
+            int call = sendCalls.incrementAndGet();
+            String query = exchange.getRequestURI().getQuery();
+            if (truncateResponses) {
+                // 声明的长度大于实际写出的内容，客户端读取响应时连接中途断开
+                byte[] bytes = "{\"errcode\":0".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, bytes.length + 16);
+                exchange.getResponseBody().write(bytes);
+                exchange.close();
+                return;
+            }
+            if (busyResponses.getAndDecrement() > 0) {
+                respond(exchange, "{\"errcode\":-1,\"errmsg\":\"system busy\"}");
+                return;
+            }
+            respond(exchange, revokedToken != null && query.endsWith("access_token=" + revokedToken)
+                    ? "{\"errcode\":42001,\"errmsg\":\"access_token expired\"}"
+                    : "{\"errcode\":0,\"errmsg\":\"ok\",\"msgid\":\"msg-" + call + "\"}");
+        });
+        server.start();
+        
+        WeChatNoticeProperties properties = WeChatConfigBuilder.create().build();
+        properties.getApi().setBaseUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        properties.getApi().setRetryInitialInterval(10);
+        ObjectMapper objectMapper = new ObjectMapper();
+        httpClient = HttpClients.createDefault();
+        asyncHttpClient = HttpAsyncClients.createDefault();
+        asyncHttpClient.start();
+        WeChatTokenManager tokenManager = new WeChatTokenManager(httpClient, objectMapper, properties);
+        apiClient = new WeChatApiClient(httpClient, asyncHttpClient, objectMapper, tokenManager, properties);
+        appConfig = WeChatAppConfig.builder()
+                .appName("test-app")
+                .corpId("test-corp-id")
+                .secret("test-secret")
+                .agentId(1000001)
+                .build();
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        apiClient.close();
+        asyncHttpClient.close();
+        httpClient.close();
+        server.stop(0);
+    }
+    
+    @Test
+    public void testSendMessageAsync() throws Exception {
+        AppHandle appHandle = apiClient.resolveHandle(appConfig);
+        List<CompletableFuture<WeChatMessageResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(apiClient.sendMessageAsync(appHandle, textMessage()));
+        }
+        for (CompletableFuture<WeChatMessageResult> future : futures) {
+            assertTrue(future.get(5, TimeUnit.SECONDS).isSuccess());
+        }
+        assertEquals(10, sendCalls.get());
+        assertEquals(1, tokenCalls.get());
+    }
+    
+    @Test
+    public void testRevokedTokenReplayedAsync() throws Exception {
+        AppHandle appHandle = apiClient.resolveHandle(appConfig);
+        revokedToken = "token-1";
+        
+        WeChatMessageResult result = apiClient.sendMessageAsync(appHandle, textMessage()).get(5, TimeUnit.SECONDS);
+        
+        assertTrue(result.isSuccess());
+        assertEquals(2, tokenCalls.get());
+        assertEquals(2, sendCalls.get());
+    }
+    
+    @Test
+    public void testTransientFailureRetriedAsync() throws Exception {
+        AppHandle appHandle = apiClient.resolveHandle(appConfig);
+        busyResponses.set(2);
+        
+        WeChatMessageResult result = apiClient.sendMessageAsync(appHandle, textMessage()).get(5, TimeUnit.SECONDS);
+        
+        assertTrue(result.isSuccess());
+        assertEquals(3, sendCalls.get());
+    }
+    
+    @Test
+    public void testTruncatedResponseNotRetriedAsync() throws Exception {
+        AppHandle appHandle = apiClient.resolveHandle(appConfig);
+        truncateResponses = true;
+        
+        try {
+            apiClient.sendMessageAsync(appHandle, textMessage()).get(5, TimeUnit.SECONDS);
+            fail("响应中途断开时应以异常完成");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof WeChatNoticeException);
+        }
+        assertEquals(1, sendCalls.get());
+    }
+    
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+    
+    private WeChatMessage textMessage() {
+        return WeChatMessageBuilder.text()
+                .content("测试消息")
+                .toUser("user1")
+                .build();
+    }
+}
\ No newline at end of file
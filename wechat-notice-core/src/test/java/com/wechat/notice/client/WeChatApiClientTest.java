@@ -0,0 +1,531 @@
+package com.wechat.notice.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wechat.notice.client.transport.ApacheWeChatTransport;
+import com.wechat.notice.client.transport.WeChatHttpRequest;
+import com.wechat.notice.client.transport.WeChatHttpResponse;
+import com.wechat.notice.client.transport.WeChatTransport;
+import com.wechat.notice.config.WeChatAppConfig;
+import com.wechat.notice.config.WeChatConfigBuilder;
+import com.wechat.notice.config.WeChatNoticeProperties;
+import com.wechat.notice.exception.WeChatNoticeException;
+import com.wechat.notice.message.WeChatMessage;
+import com.wechat.notice.message.WeChatMessageResult;
+import com.wechat.notice.message.builder.WeChatMessageBuilder;
+import com.wechat.notice.message.enums.MessageType;
+import com.wechat.notice.message.enums.WeChatErrorCode;
+import org.apache.http.ConnectionClosedException;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.client.config.RequestConfig;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.*;
+
+/**
+ * WeChatApiClient测试类
+ * 使用桩HTTP客户端模拟企业微信接口
+ *
+ * @author fyf
+ */
+public class WeChatApiClientTest {
+    
+    private StubHttpClient httpClient;
+    private WeChatApiClient apiClient;
+    private WeChatAppConfig appConfig;
+    
+    @Before
+    public void setUp() {
+        WeChatNoticeProperties properties = WeChatConfigBuilder.create().build();
+        properties.getApi().setRetryInitialInterval(10);
+        properties.getApi().setSyncRetryEnabled(true);
+        ObjectMapper objectMapper = new ObjectMapper();
+        httpClient = new StubHttpClient();
+        WeChatTokenManager tokenManager = new WeChatTokenManager(httpClient, objectMapper, properties);
+        apiClient = new WeChatApiClient(httpClient, objectMapper, tokenManager, properties);
+        appConfig = WeChatAppConfig.builder()
+                .appName("test-app")
+                .corpId("test-corp-id")
+                .secret("test-secret")
+                .agentId(1000001)
+                .build();
+    }
+    
+    @Test
+    public void testSendMessage() {
+        WeChatMessageResult result = apiClient.sendMessage(appConfig, textMessage());
+        
+        assertTrue(result.isSuccess());
+        assertEquals("msg-1", result.getMsgId());
+        assertEquals(1, httpClient.tokenCalls.get());
+    }
+    
+    @Test
+    public void testConfigHandleFollowsConfigChanges() {
+        assertTrue(apiClient.sendMessage(appConfig, textMessage()).isSuccess());
+        assertTrue(apiClient.sendMessage(appConfig, textMessage()).isSuccess());
+        assertEquals(1, httpClient.tokenCalls.get());
+        
+        // 配置变化后按新配置解析句柄，使用新凭证获取Token
+        appConfig.setSecret("rotated-secret");
+        assertTrue(apiClient.sendMessage(appConfig, textMessage()).isSuccess());
+        assertEquals(2, httpClient.tokenCalls.get());
+    }
+    
+    @Test
+    public void testRequestBodySerialization() throws Exception {
+        WeChatMessage markdown = WeChatMessageBuilder.markdown()
+                .content("## 告警\n\"磁盘\"使用率 95%")
+                .toUser("user1|user2")
+                .build();
+        markdown.setAgentId(1000001);
+        apiClient.sendMessage(appConfig, markdown);
+        
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode body = objectMapper.readTree(httpClient.sendBodies.get(0));
+        assertEquals("user1|user2", body.get("touser").asText());
+        assertEquals("markdown", body.get("msgtype").asText());
+        assertEquals(1000001, body.get("agentid").asInt());
+        assertEquals("## 告警\n\"磁盘\"使用率 95%", body.get("markdown").get("content").asText());
+        assertTrue(body.get("toparty").isNull());
+    }
+    
+    @Test
+    public void testEveryMessageTypeSerialized() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        WeChatMessageSerializer serializer = new WeChatMessageSerializer(objectMapper);
+        
+        for (MessageType type : MessageType.values()) {
+            WeChatMessage message = WeChatMessage.builder()
+                    .msgType(type.getCode())
+                    .toUser("@all")
+                    .agentId(1000001)
+                    .content("内容")
+                    .mediaId("media-1")
+                    .title("标题")
+                    .description("描述")
+                    .url("https://example.com")
+                    .btnTxt("详情")
+                    .build();
+            if (type == MessageType.NEWS || type == MessageType.MPNEWS || type == MessageType.TEMPLATE_CARD) {
+                message.setExtra(Collections.singletonMap(type.getCode(), Collections.singletonMap("k", "v")));
+            }
+            
+            JsonNode body = objectMapper.readTree(serializer.toByteArray(message));
+            assertEquals(type.getCode(), body.get("msgtype").asText());
+            assertTrue(type.getCode(), body.get(type.getCode()).isObject());
+        }
+        
+        WeChatMessage video = WeChatMessage.builder().msgType("video").mediaId("media-1").build();
+        JsonNode videoBody = objectMapper.readTree(serializer.toByteArray(video));
+        assertEquals("media-1", videoBody.get("video").get("media_id").asText());
+        assertFalse(videoBody.get("video").has("title"));
+        
+        // 扩展字段中的同名消息体优先
+        WeChatMessage overridden = WeChatMessage.builder().msgType("text").content("原内容")
+                .extra(Collections.singletonMap("text", Collections.singletonMap("content", "扩展内容"))).build();
+        JsonNode overriddenBody = objectMapper.readTree(serializer.toByteArray(overridden));
+        assertEquals("扩展内容", overriddenBody.get("text").get("content").asText());
+    }
+    
+    @Test
+    public void testMissingBodyRejected() throws Exception {
+        WeChatMessage news = WeChatMessage.builder().msgType("news").toUser("@all").title("标题").build();
+        
+        // 缺少扩展字段中的消息体时在发送前拒绝，不会获取Token或发出请求
+        try {
+            apiClient.sendMessage(appConfig, news);
+            fail("缺少消息体时应抛出异常");
+        } catch (WeChatNoticeException e) {
+            assertTrue(e.getMessage().contains("news"));
+        }
+        try {
+            apiClient.sendMessageAsync(apiClient.resolveHandle(appConfig), news).get();
+            fail("缺少消息体时应以异常完成");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof WeChatNoticeException);
+        }
+        assertEquals(0, httpClient.tokenCalls.get());
+        assertEquals(0, httpClient.sendCalls.get());
+        
+        try {
+            new WeChatMessageSerializer(new ObjectMapper()).toByteArray(news);
+            fail("缺少消息体时序列化应抛出异常");
+        } catch (WeChatNoticeException e) {
+            assertTrue(e.getMessage().contains("news"));
+        }
+    }
+    
+    @Test
+    public void testResponseParsedSelectively() {
+        httpClient.sendBody = "{\"errcode\":0,\"errmsg\":\"ok\",\"invaliduser\":\"u1|u2\",\"invalidparty\":\"\","
+                + "\"unlicenseduser\":\"u3\",\"extra\":{\"nested\":[1,{\"msgid\":\"inner\"}]},"
+                + "\"msgid\":\"msg-x\",\"response_code\":\"code\"}";
+        
+        WeChatMessageResult result = apiClient.sendMessage(appConfig, textMessage());
+        
+        assertTrue(result.isSuccess());
+        assertEquals("msg-x", result.getMsgId());
+        assertEquals("u1|u2", result.getInvalidUser());
+        assertEquals("", result.getInvalidParty());
+        assertNull(result.getInvalidTag());
+        
+        httpClient.sendBody = "{\"errcode\":81013,\"errmsg\":\"user & party & tag all invalid\"}";
+        result = apiClient.sendMessage(appConfig, textMessage());
+        assertFalse(result.isSuccess());
+        assertEquals(Integer.valueOf(81013), result.getErrCode());
+        assertEquals("user & party & tag all invalid", result.getErrMsg());
+    }
+    
+    @Test
+    public void testTransientFailuresRetried() {
+        httpClient.busyResponses.set(2);
+        WeChatMessageResult result = apiClient.sendMessage(appConfig, textMessage());
+        assertTrue(result.isSuccess());
+        assertEquals(3, httpClient.sendCalls.get());
+        
+        httpClient.sendIoFailures.set(1);
+        assertTrue(apiClient.sendMessage(appConfig, textMessage()).isSuccess());
+        assertEquals(5, httpClient.sendCalls.get());
+        
+        // 超过重试次数后返回最后一次的结果
+        httpClient.busyResponses.set(10);
+        result = apiClient.sendMessage(appConfig, textMessage());
+        assertFalse(result.isSuccess());
+        assertEquals(Integer.valueOf(-1), result.getErrCode());
+        assertEquals(9, httpClient.sendCalls.get());
+    }
+    
+    @Test
+    public void testSyncRetryDisabledByDefault() {
+        WeChatNoticeProperties properties = WeChatConfigBuilder.create().build();
+        ObjectMapper objectMapper = new ObjectMapper();
+        WeChatTokenManager tokenManager = new WeChatTokenManager(httpClient, objectMapper, properties);
+        try (WeChatApiClient client = new WeChatApiClient(httpClient, objectMapper, tokenManager, properties)) {
+            // 同步发送默认不在调用线程上退避重试，直接返回可重试的错误码
+            httpClient.busyResponses.set(1);
+            WeChatMessageResult result = client.sendMessage(appConfig, textMessage());
+            assertEquals(Integer.valueOf(-1), result.getErrCode());
+            assertEquals(1, httpClient.sendCalls.get());
+        }
+    }
+    
+    @Test
+    public void testOnlyUnsentRequestsRetried() {
+        // 复用的空闲连接已被关闭，请求未被处理，按重试次数重发
+        httpClient.sendError = new NoHttpResponseException("The target server failed to respond");
+        assertSendFails();
+        assertEquals(4, httpClient.sendCalls.get());
+        
+        // 响应中途断开时请求可能已被处理，不重发
+        httpClient.sendError = new ConnectionClosedException("Premature end of Content-Length delimited message body");
+        assertSendFails();
+        assertEquals(5, httpClient.sendCalls.get());
+        
+        httpClient.sendError = new SocketTimeoutException("Read timed out");
+        assertSendFails();
+        assertEquals(6, httpClient.sendCalls.get());
+    }
+    
+    @Test
+    public void testUnparseableResponseNotRetried() {
+        httpClient.sendBody = "{\"errcode\":0,\"errmsg\":\"o";
+        try {
+            apiClient.sendMessage(appConfig, textMessage());
+            fail("响应无法解析时应抛出异常");
+        } catch (WeChatNoticeException e) {
+            assertEquals("解析微信消息响应失败", e.getMessage());
+        }
+        assertEquals(1, httpClient.sendCalls.get());
+    }
+    
+    @Test
+    public void testTimeoutsApplied() {
+        apiClient.sendMessage(appConfig, textMessage());
+        
+        RequestConfig config = httpClient.lastSendConfig;
+        assertEquals(10000, config.getConnectTimeout());
+        assertEquals(5000, config.getConnectionRequestTimeout());
+        assertTrue(config.getSocketTimeout() > 0 && config.getSocketTimeout() <= 30000);
+    }
+    
+    @Test
+    public void testSendDeadlineCoversTokenAndRetries() {
+        WeChatNoticeProperties properties = WeChatConfigBuilder.create().build();
+        properties.getApi().setSendTimeout(300);
+        properties.getApi().setRetryCount(100);
+        properties.getApi().setRetryInitialInterval(50);
+        properties.getApi().setSyncRetryEnabled(true);
+        ObjectMapper objectMapper = new ObjectMapper();
+        WeChatTokenManager tokenManager = new WeChatTokenManager(httpClient, objectMapper, properties);
+        try (WeChatApiClient client = new WeChatApiClient(httpClient, objectMapper, tokenManager, properties)) {
+            httpClient.tokenDelayMillis = 1000;
+            long start = System.currentTimeMillis();
+            try {
+                client.sendMessage(appConfig, textMessage());
+                fail("获取Token超过截止时间时应抛出异常");
+            } catch (WeChatNoticeException e) {
+                assertTrue(System.currentTimeMillis() - start < 900);
+            }
+            // gettoken在调用线程上请求，读取超时不超过剩余时间
+            assertTrue(httpClient.lastTokenConfig.getSocketTimeout() <= 300);
+            
+            // 截止时间内持续重试，剩余时间不足以退避时返回最后一次结果
+            httpClient.tokenDelayMillis = 0;
+            tokenManager.getAccessToken(appConfig);
+            httpClient.busyResponses.set(1000);
+            start = System.currentTimeMillis();
+            WeChatMessageResult result = client.sendMessage(appConfig, textMessage());
+            assertEquals(Integer.valueOf(-1), result.getErrCode());
+            assertTrue(System.currentTimeMillis() - start < 900);
+            assertTrue(httpClient.sendCalls.get() > 1);
+        }
+    }
+    
+    @Test
+    public void testCustomTransport() throws Exception {
+        WeChatNoticeProperties properties = WeChatConfigBuilder.create().build();
+        ObjectMapper objectMapper = new ObjectMapper();
+        WeChatTransport delegate = new ApacheWeChatTransport(httpClient);
+        List<WeChatHttpRequest> requests = new CopyOnWriteArrayList<>();
+        WeChatTransport transport = new WeChatTransport() {
+            @Override
+            public WeChatHttpResponse execute(WeChatHttpRequest request) throws IOException {
+                requests.add(request);
+                return delegate.execute(request);
+            }
+            
+            @Override
+            public CompletableFuture<WeChatHttpResponse> executeAsync(WeChatHttpRequest request) {
+                requests.add(request);
+                CompletableFuture<WeChatHttpResponse> future = new CompletableFuture<>();
+                try {
+                    future.complete(delegate.execute(request));
+                } catch (IOException e) {
+                    future.completeExceptionally(e);
+                }
+                return future;
+            }
+        };
+        WeChatTokenManager tokenManager = new WeChatTokenManager(transport, objectMapper, properties);
+        try (WeChatApiClient client = new WeChatApiClient(transport, objectMapper, tokenManager, properties)) {
+            assertTrue(client.sendMessage(appConfig, textMessage()).isSuccess());
+            assertTrue(client.sendMessageAsync(client.resolveHandle(appConfig), textMessage()).get().isSuccess());
+        }
+        
+        assertEquals(3, requests.size());
+        assertEquals(WeChatHttpRequest.GET, requests.get(0).getMethod());
+        WeChatHttpRequest send = requests.get(1);
+        assertEquals(WeChatHttpRequest.POST, send.getMethod());
+        assertTrue(send.getUrl().endsWith("access_token=token-1"));
+        assertEquals("text", objectMapper.readTree(new String(send.getBody(), 0, send.getBodyLength(),
+            StandardCharsets.UTF_8)).get("msgtype").asText());
+    }
+    
+    @Test
+    public void testCircuitOpensAndFailsFast() throws InterruptedException {
+        WeChatNoticeProperties properties = WeChatConfigBuilder.create().build();
+        properties.getApi().setRetryEnabled(false);
+        properties.getApi().setCircuitBreakerEnabled(true);
+        properties.getApi().setCircuitBreakerWindowSize(10);
+        properties.getApi().setCircuitBreakerMinimumCalls(4);
+        properties.getApi().setCircuitBreakerOpenDuration(200);
+        properties.getApi().setCircuitBreakerHalfOpenCalls(2);
+        ObjectMapper objectMapper = new ObjectMapper();
+        WeChatTokenManager tokenManager = new WeChatTokenManager(httpClient, objectMapper, properties);
+        try (WeChatApiClient client = new WeChatApiClient(httpClient, objectMapper, tokenManager, properties)) {
+            AppHandle handle = client.resolveHandle(appConfig);
+            httpClient.busyResponses.set(4);
+            for (int i = 0; i < 4; i++) {
+                assertEquals(Integer.valueOf(-1), client.sendMessage(handle, textMessage()).getErrCode());
+            }
+            assertEquals(WeChatCircuitBreaker.State.OPEN, client.getCircuitState(handle));
+            // 同一企业应用的其他句柄共用保存在句柄上的熔断器
+            assertEquals(WeChatCircuitBreaker.State.OPEN, client.getCircuitState(client.resolveHandle(appConfig)));
+            
+            // 打开期间不发出请求
+            WeChatMessageResult rejected = client.sendMessage(handle, textMessage());
+            assertEquals(Integer.valueOf(WeChatErrorCode.CIRCUIT_OPEN.getCode()), rejected.getErrCode());
+            assertEquals(4, httpClient.sendCalls.get());
+            
+            // 打开时间结束后放行有限个探测请求，全部成功则关闭
+            Thread.sleep(250);
+            assertTrue(client.sendMessage(handle, textMessage()).isSuccess());
+            assertEquals(WeChatCircuitBreaker.State.HALF_OPEN, client.getCircuitState(handle));
+            assertTrue(client.sendMessage(handle, textMessage()).isSuccess());
+            assertEquals(WeChatCircuitBreaker.State.CLOSED, client.getCircuitState(handle));
+            assertEquals(6, httpClient.sendCalls.get());
+        }
+    }
+    
+    @Test
+    public void testCircuitTimesOnlyHttpExchange() {
+        WeChatNoticeProperties properties = WeChatConfigBuilder.create().build();
+        properties.getApi().setRetryEnabled(false);
+        properties.getApi().setCircuitBreakerEnabled(true);
+        properties.getApi().setCircuitBreakerMinimumCalls(2);
+        properties.getApi().setCircuitBreakerSlowCallDuration(100);
+        ObjectMapper objectMapper = new ObjectMapper();
+        WeChatTokenManager tokenManager = new WeChatTokenManager(httpClient, objectMapper, properties);
+        try (WeChatApiClient client = new WeChatApiClient(httpClient, objectMapper, tokenManager, properties)) {
+            AppHandle handle = client.resolveHandle(appConfig);
+            // 获取Token耗时超过慢调用阈值，但message/send本身很快，不计为慢调用
+            httpClient.tokenDelayMillis = 200;
+            assertTrue(client.sendMessage(handle, textMessage()).isSuccess());
+            tokenManager.clearTokenCache(appConfig);
+            assertTrue(client.sendMessage(handle, textMessage()).isSuccess());
+            assertEquals(WeChatCircuitBreaker.State.CLOSED, client.getCircuitState(handle));
+        }
+    }
+    
+    @Test
+    public void testConcurrencyLimitFollowsOverload() {
+        WeChatNoticeProperties properties = WeChatConfigBuilder.create().build();
+        properties.getApi().setRetryEnabled(false);
+        properties.getApi().setConcurrencyLimitEnabled(true);
+        properties.getApi().setConcurrencyLimitInitial(10);
+        ObjectMapper objectMapper = new ObjectMapper();
+        WeChatTokenManager tokenManager = new WeChatTokenManager(httpClient, objectMapper, properties);
+        try (WeChatApiClient client = new WeChatApiClient(httpClient, objectMapper, tokenManager, properties)) {
+            assertNull(apiClient.getConcurrencyLimiter());
+            WeChatConcurrencyLimiter limiter = client.getConcurrencyLimiter();
+            
+            httpClient.busyResponses.set(1);
+            assertEquals(Integer.valueOf(-1), client.sendMessage(appConfig, textMessage()).getErrCode());
+            assertEquals(7, limiter.getLimit());
+            assertEquals(0, limiter.getInFlight());
+            
+            assertTrue(client.sendMessage(appConfig, textMessage()).isSuccess());
+            assertEquals(0, limiter.getInFlight());
+        }
+    }
+    
+    @Test
+    public void testConcurrencyPermitReleasedWhenTransportThrows() throws Exception {
+        WeChatNoticeProperties properties = WeChatConfigBuilder.create().build();
+        properties.getApi().setRetryEnabled(false);
+        properties.getApi().setConcurrencyLimitEnabled(true);
+        ObjectMapper objectMapper = new ObjectMapper();
+        WeChatTransport delegate = new ApacheWeChatTransport(httpClient);
+        WeChatTransport transport = new WeChatTransport() {
+            @Override
+            public WeChatHttpResponse execute(WeChatHttpRequest request) throws IOException {
+                return delegate.execute(request);
+            }
+            
+            @Override
+            public CompletableFuture<WeChatHttpResponse> executeAsync(WeChatHttpRequest request) {
+                throw new IllegalStateException("async client closed");
+            }
+        };
+        WeChatTokenManager tokenManager = new WeChatTokenManager(transport, objectMapper, properties);
+        try (WeChatApiClient client = new WeChatApiClient(transport, objectMapper, tokenManager, properties)) {
+            WeChatConcurrencyLimiter limiter = client.getConcurrencyLimiter();
+            try {
+                client.sendMessageAsync(client.resolveHandle(appConfig), textMessage()).get();
+                fail("传输层抛出异常时应以异常完成");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof WeChatNoticeException);
+            }
+            assertEquals(0, limiter.getInFlight());
+        }
+    }
+    
+    @Test
+    public void testPermanentFailureNotRetried() {
+        httpClient.sendBody = "{\"errcode\":81013,\"errmsg\":\"user & party & tag all invalid\"}";
+        assertFalse(apiClient.sendMessage(appConfig, textMessage()).isSuccess());
+        assertEquals(1, httpClient.sendCalls.get());
+    }
+    
+    @Test
+    public void testRevokedTokenIsRefreshedAndReplayed() {
+        httpClient.revokedToken = "token-1";
+        
+        WeChatMessageResult result = apiClient.sendMessage(appConfig, textMessage());
+        
+        assertTrue(result.isSuccess());
+        assertEquals(2, httpClient.tokenCalls.get());
+        assertEquals(2, httpClient.sendCalls.get());
+        assertTrue(httpClient.sendUris.get(1).endsWith("access_token=token-2"));
+        
+        // 后续发送直接使用新Token
+        assertTrue(apiClient.sendMessage(appConfig, textMessage()).isSuccess());
+        assertEquals(2, httpClient.tokenCalls.get());
+    }
+    
+    @Test
+    public void testReplayedOnlyOnce() {
+        httpClient.sendBody = "{\"errcode\":42001,\"errmsg\":\"access_token expired\"}";
+        
+        WeChatMessageResult result = apiClient.sendMessage(appConfig, textMessage());
+        
+        assertFalse(result.isSuccess());
+        assertEquals(Integer.valueOf(42001), result.getErrCode());
+        assertEquals(2, httpClient.sendCalls.get());
+    }
+    
+    @Test
+    public void testSendThroughHandle() {
+        AppHandle appHandle = apiClient.resolveHandle(appConfig);
+        
+        assertTrue(apiClient.sendMessage(appHandle, textMessage()).isSuccess());
+        assertTrue(apiClient.sendMessage(appHandle, textMessage()).isSuccess());
+        assertEquals(1, httpClient.tokenCalls.get());
+        
+        // 句柄槽位中的Token被吊销后，重新获取并写回槽位
+        httpClient.revokedToken = "token-1";
+        assertTrue(apiClient.sendMessage(appHandle, textMessage()).isSuccess());
+        assertTrue(apiClient.sendMessage(appHandle, textMessage()).isSuccess());
+        assertEquals(2, httpClient.tokenCalls.get());
+        assertTrue(httpClient.sendUris.get(4).endsWith("access_token=token-2"));
+    }
+    
+    @Test
+    public void testStaleTokenFlagged() throws Exception {
+        WeChatNoticeProperties properties = WeChatConfigBuilder.create().build();
+        properties.getApi().setTokenRefreshAheadRatio(0);
+        properties.getApi().setTokenExpireSafetyMargin(0);
+        properties.getApi().setTokenExpireJitter(0);
+        properties.getApi().setTokenStaleGracePeriod(300);
+        ObjectMapper objectMapper = new ObjectMapper();
+        WeChatTokenManager tokenManager = new WeChatTokenManager(httpClient, objectMapper, properties);
+        WeChatApiClient client = new WeChatApiClient(httpClient, objectMapper, tokenManager, properties);
+        httpClient.expiresIn = 1;
+        assertFalse(client.sendMessage(appConfig, textMessage()).isStaleToken());
+        Thread.sleep(1100);
+        
+        httpClient.tokenBody = "{\"errcode\":-1,\"errmsg\":\"system busy\"}";
+        WeChatMessageResult result = client.sendMessage(appConfig, textMessage());
+        
+        assertTrue(result.isSuccess());
+        assertTrue(result.isStaleToken());
+        assertTrue(httpClient.sendUris.get(1).endsWith("access_token=token-1"));
+    }
+    
+    private void assertSendFails() {
+        try {
+            apiClient.sendMessage(appConfig, textMessage());
+            fail("发送失败时应抛出异常");
+        } catch (WeChatNoticeException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+    
+    private WeChatMessage textMessage() {
+        return WeChatMessageBuilder.text()
+                .content("测试消息")
+                .toUser("user1")
+                .build();
+    }
+}
\ No newline at end of file
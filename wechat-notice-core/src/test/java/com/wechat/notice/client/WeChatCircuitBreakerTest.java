@@ -0,0 +1,119 @@
+package com.wechat.notice.client;
+
+import com.wechat.notice.config.WeChatConfigBuilder;
+import com.wechat.notice.config.WeChatNoticeProperties;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * WeChatCircuitBreaker测试类
+ *
+ * @author fyf
+ */
+public class WeChatCircuitBreakerTest {
+    
+    private WeChatNoticeProperties properties;
+    
+    @Before
+    public void setUp() {
+        properties = WeChatConfigBuilder.create().build();
+        properties.getApi().setCircuitBreakerWindowSize(10);
+        properties.getApi().setCircuitBreakerMinimumCalls(5);
+        properties.getApi().setCircuitBreakerFailureRate(0.5);
+        properties.getApi().setCircuitBreakerSlowCallDuration(100);
+        properties.getApi().setCircuitBreakerSlowCallRate(0.8);
+        properties.getApi().setCircuitBreakerOpenDuration(100);
+        properties.getApi().setCircuitBreakerHalfOpenCalls(2);
+    }
+    
+    @Test
+    public void testOpensOnFailureRateAfterMinimumCalls() {
+        WeChatCircuitBreaker breaker = new WeChatCircuitBreaker("test", properties);
+        for (int i = 0; i < 4; i++) {
+            breaker.onResult(breaker.tryAcquire(), 0, true);
+        }
+        // 未达到最少调用次数前不打开
+        assertEquals(WeChatCircuitBreaker.State.CLOSED, breaker.getState());
+        
+        breaker.onResult(breaker.tryAcquire(), 0, false);
+        breaker.onResult(breaker.tryAcquire(), 0, true);
+        assertEquals(WeChatCircuitBreaker.State.OPEN, breaker.getState());
+        assertNull(breaker.tryAcquire());
+    }
+    
+    @Test
+    public void testOpensOnSlowCalls() {
+        WeChatCircuitBreaker breaker = new WeChatCircuitBreaker("test", properties);
+        long slow = TimeUnit.MILLISECONDS.toNanos(200);
+        for (int i = 0; i < 10; i++) {
+            breaker.onResult(breaker.tryAcquire(), i < 2 ? 0 : slow, false);
+        }
+        assertEquals(WeChatCircuitBreaker.State.OPEN, breaker.getState());
+    }
+    
+    @Test
+    public void testHalfOpenLimitsProbes() throws InterruptedException {
+        WeChatCircuitBreaker breaker = openBreaker();
+        Thread.sleep(150);
+        
+        // 半开状态只放行配置的探测数，其余请求继续被拒绝
+        WeChatCircuitBreaker.Phase first = breaker.tryAcquire();
+        WeChatCircuitBreaker.Phase second = breaker.tryAcquire();
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(breaker.tryAcquire());
+        assertEquals(WeChatCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        
+        breaker.onResult(first, 0, false);
+        assertEquals(WeChatCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onResult(second, 0, false);
+        assertEquals(WeChatCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+    
+    @Test
+    public void testReleasedProbeNotCounted() throws InterruptedException {
+        WeChatCircuitBreaker breaker = openBreaker();
+        Thread.sleep(150);
+        
+        // 未发出的探测请求归还许可，不计为成功
+        WeChatCircuitBreaker.Phase first = breaker.tryAcquire();
+        WeChatCircuitBreaker.Phase second = breaker.tryAcquire();
+        breaker.release(first);
+        breaker.onResult(second, 0, false);
+        assertEquals(WeChatCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        
+        WeChatCircuitBreaker.Phase retried = breaker.tryAcquire();
+        assertNotNull(retried);
+        breaker.onResult(retried, 0, false);
+        assertEquals(WeChatCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+    
+    @Test
+    public void testFailedProbeReopens() throws InterruptedException {
+        WeChatCircuitBreaker breaker = openBreaker();
+        Thread.sleep(150);
+        
+        WeChatCircuitBreaker.Phase probe = breaker.tryAcquire();
+        WeChatCircuitBreaker.Phase late = breaker.tryAcquire();
+        breaker.onResult(probe, 0, true);
+        assertEquals(WeChatCircuitBreaker.State.OPEN, breaker.getState());
+        
+        // 旧阶段的迟到结果不影响新阶段
+        breaker.onResult(late, 0, false);
+        assertEquals(WeChatCircuitBreaker.State.OPEN, breaker.getState());
+        assertNull(breaker.tryAcquire());
+    }
+    
+    private WeChatCircuitBreaker openBreaker() {
+        WeChatCircuitBreaker breaker = new WeChatCircuitBreaker("test", properties);
+        for (int i = 0; i < 5; i++) {
+            breaker.onResult(breaker.tryAcquire(), 0, true);
+        }
+        assertEquals(WeChatCircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,128 @@
+package com.wechat.notice.client;
+
+import com.wechat.notice.config.WeChatConfigBuilder;
+import com.wechat.notice.config.WeChatNoticeProperties;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+/**
+ * WeChatConcurrencyLimiter测试类
+ *
+ * @author fyf
+ */
+public class WeChatConcurrencyLimiterTest {
+    
+    private WeChatNoticeProperties properties;
+    
+    @Before
+    public void setUp() {
+        properties = WeChatConfigBuilder.create().build();
+        properties.getApi().setConcurrencyLimitInitial(4);
+        properties.getApi().setConcurrencyLimitMin(1);
+        properties.getApi().setConcurrencyLimitMax(10);
+        properties.getApi().setConcurrencyLimitBackoffRatio(0.5);
+        properties.getApi().setConcurrencyLimitRttTolerance(2.0);
+    }
+    
+    @Test
+    public void testLimitGrowsWhenSaturated() {
+        WeChatConcurrencyLimiter limiter = new WeChatConcurrencyLimiter(properties);
+        for (int round = 0; round < 100; round++) {
+            List<WeChatConcurrencyLimiter.Permit> permits = acquireAll(limiter);
+            permits.forEach(permit -> limiter.release(permit, false));
+        }
+        assertEquals(10, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+    
+    @Test
+    public void testOverloadDecreasesOncePerRound() {
+        properties.getApi().setConcurrencyLimitInitial(8);
+        WeChatConcurrencyLimiter limiter = new WeChatConcurrencyLimiter(properties);
+        
+        // 同一轮内的多个限流响应只降低一次
+        List<WeChatConcurrencyLimiter.Permit> permits = acquireAll(limiter);
+        permits.forEach(permit -> limiter.release(permit, true));
+        assertEquals(4, limiter.getLimit());
+        
+        limiter.release(limiter.acquire().join(), true);
+        assertEquals(2, limiter.getLimit());
+    }
+    
+    @Test
+    public void testSlowResponseDecreasesLimit() throws InterruptedException {
+        WeChatConcurrencyLimiter limiter = new WeChatConcurrencyLimiter(properties);
+        for (int i = 0; i < 3; i++) {
+            limiter.release(limiter.acquire().join(), false);
+        }
+        assertEquals(4, limiter.getLimit());
+        
+        WeChatConcurrencyLimiter.Permit permit = limiter.acquire().join();
+        Thread.sleep(50);
+        limiter.release(permit, false);
+        assertEquals(2, limiter.getLimit());
+    }
+    
+    @Test
+    public void testWaitersQueuedAndCancelled() {
+        properties.getApi().setConcurrencyLimitInitial(1);
+        properties.getApi().setConcurrencyLimitMax(1);
+        WeChatConcurrencyLimiter limiter = new WeChatConcurrencyLimiter(properties);
+        
+        WeChatConcurrencyLimiter.Permit first = limiter.acquire().join();
+        CompletableFuture<WeChatConcurrencyLimiter.Permit> second = limiter.acquire();
+        CompletableFuture<WeChatConcurrencyLimiter.Permit> third = limiter.acquire();
+        assertFalse(second.isDone());
+        assertEquals(2, limiter.getWaiting());
+        
+        // 放弃等待的请求不占用名额
+        limiter.cancel(third);
+        assertEquals(1, limiter.getWaiting());
+        limiter.release(first, false);
+        assertTrue(second.isDone());
+        assertEquals(1, limiter.getInFlight());
+        limiter.release(second.join(), false);
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, limiter.getWaiting());
+    }
+    
+    @Test
+    public void testWithdrawKeepsGrantedPermit() {
+        properties.getApi().setConcurrencyLimitInitial(1);
+        properties.getApi().setConcurrencyLimitMax(1);
+        WeChatConcurrencyLimiter limiter = new WeChatConcurrencyLimiter(properties);
+        
+        WeChatConcurrencyLimiter.Permit first = limiter.acquire().join();
+        CompletableFuture<WeChatConcurrencyLimiter.Permit> second = limiter.acquire();
+        CompletableFuture<WeChatConcurrencyLimiter.Permit> third = limiter.acquire();
+        
+        // 撤回的等待立即移出队列
+        assertTrue(limiter.withdraw(third));
+        assertEquals(1, limiter.getWaiting());
+        
+        // 已获得许可后撤回无效，名额仍由持有方归还
+        limiter.release(first, false);
+        assertFalse(limiter.withdraw(second));
+        assertEquals(1, limiter.getInFlight());
+        limiter.release(second.join(), false);
+        assertEquals(0, limiter.getInFlight());
+    }
+    
+    private static List<WeChatConcurrencyLimiter.Permit> acquireAll(WeChatConcurrencyLimiter limiter) {
+        List<WeChatConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        while (true) {
+            CompletableFuture<WeChatConcurrencyLimiter.Permit> waiter = limiter.acquire();
+            if (!waiter.isDone()) {
+                limiter.cancel(waiter);
+                return permits;
+            }
+            permits.add(waiter.join());
+        }
+    }
+}
\ No newline at end of file
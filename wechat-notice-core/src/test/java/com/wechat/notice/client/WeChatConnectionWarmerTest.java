@@ -0,0 +1,151 @@
+package com.wechat.notice.client;
+
+import com.wechat.notice.client.transport.WeChatEndpointRouter;
+import com.wechat.notice.client.transport.WeChatHttpRequest;
+import com.wechat.notice.client.transport.WeChatHttpResponse;
+import com.wechat.notice.client.transport.WeChatTransport;
+import com.wechat.notice.config.WeChatConfigBuilder;
+import com.wechat.notice.config.WeChatNoticeProperties;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * WeChatConnectionWarmer测试类
+ *
+ * @author fyf
+ */
+public class WeChatConnectionWarmerTest {
+    
+    private WeChatNoticeProperties properties;
+    private CountingTransport transport;
+    
+    @Before
+    public void setUp() {
+        properties = WeChatConfigBuilder.create().build();
+        properties.getApi().setConnectionWarmUpSize(3);
+        properties.getApi().setConnectionKeepAliveInterval(100);
+        transport = new CountingTransport();
+    }
+    
+    @Test
+    public void testWarmUpOpensConcurrentRequests() throws Exception {
+        try (WeChatConnectionWarmer warmer = new WeChatConnectionWarmer(transport, properties)) {
+            warmer.start();
+            
+            // 首轮预热同步完成，同步请求同时进行才会各占一条连接
+            assertEquals(3, transport.syncCalls.get());
+            assertEquals(3, transport.maxConcurrent.get());
+            // 异步客户端尚未启动，不为预热而启动
+            assertEquals(0, transport.asyncCalls.get());
+            assertTrue(transport.urls.get(0).endsWith("/cgi-bin/gettoken"));
+            
+            // 定期保活
+            Thread.sleep(450);
+            assertTrue(transport.syncCalls.get() > 3);
+        }
+        
+        int calls = transport.syncCalls.get();
+        Thread.sleep(300);
+        assertEquals(calls, transport.syncCalls.get());
+    }
+    
+    @Test
+    public void testAsyncWarmedOnceStartedOrConfigured() {
+        try (WeChatConnectionWarmer warmer = new WeChatConnectionWarmer(transport, properties)) {
+            transport.asyncStarted = true;
+            warmer.warmUp();
+            assertEquals(3, transport.asyncCalls.get());
+            
+            transport.asyncStarted = false;
+            properties.getApi().setConnectionWarmUpAsync(true);
+            warmer.warmUp();
+            assertEquals(6, transport.asyncCalls.get());
+        }
+    }
+    
+    @Test
+    public void testEachEndpointWarmedOutsideRouter() {
+        properties.getApi().setBaseUrls(Arrays.asList("http://proxy-a", "http://proxy-b"));
+        WeChatEndpointRouter router = new WeChatEndpointRouter(properties);
+        double latencyBefore = router.getEndpoints().get(0).getLatencyMillis();
+        try (WeChatConnectionWarmer warmer = new WeChatConnectionWarmer(router.route(transport), properties)) {
+            assertEquals(6, warmer.warmUp());
+        }
+        
+        // 每个地址各建立size条连接，预热请求不计入路由统计
+        assertEquals(3, transport.urls.stream().filter(url -> url.startsWith("http://proxy-a/")).count());
+        assertEquals(3, transport.urls.stream().filter(url -> url.startsWith("http://proxy-b/")).count());
+        for (WeChatEndpointRouter.Endpoint endpoint : router.getEndpoints()) {
+            assertEquals(latencyBefore, endpoint.getLatencyMillis(), 0);
+            assertEquals(0, endpoint.getErrorRate(), 0);
+        }
+    }
+    
+    @Test
+    public void testFailuresDoNotPropagate() {
+        transport.failing = true;
+        try (WeChatConnectionWarmer warmer = new WeChatConnectionWarmer(transport, properties)) {
+            assertEquals(0, warmer.warmUp());
+            warmer.start();
+        }
+    }
+    
+    /**
+     * 记录调用次数与并发数的传输层
+     */
+    private static class CountingTransport implements WeChatTransport {
+        
+        final AtomicInteger syncCalls = new AtomicInteger();
+        final AtomicInteger asyncCalls = new AtomicInteger();
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+        final List<String> urls = new CopyOnWriteArrayList<>();
+        volatile boolean failing;
+        volatile boolean asyncStarted;
+        
+        @Override
+        public WeChatHttpResponse execute(WeChatHttpRequest request) throws IOException {
+            syncCalls.incrementAndGet();
+            urls.add(request.getUrl());
+            if (failing) {
+                throw new ConnectException("Connection refused");
+            }
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                concurrent.decrementAndGet();
+            }
+            return new WeChatHttpResponse(200, "{\"errcode\":41002}".getBytes());
+        }
+        
+        @Override
+        public CompletableFuture<WeChatHttpResponse> executeAsync(WeChatHttpRequest request) {
+            asyncCalls.incrementAndGet();
+            CompletableFuture<WeChatHttpResponse> future = new CompletableFuture<>();
+            if (failing) {
+                future.completeExceptionally(new ConnectException("Connection refused"));
+            } else {
+                future.complete(new WeChatHttpResponse(200, "{\"errcode\":41002}".getBytes()));
+            }
+            return future;
+        }
+        
+        @Override
+        public boolean isAsyncStarted() {
+            return asyncStarted;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.wechat.notice.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wechat.notice.client.ticket.JsapiSignature;
+import com.wechat.notice.config.WeChatAppConfig;
+import com.wechat.notice.config.WeChatConfigBuilder;
+import com.wechat.notice.config.WeChatNoticeProperties;
+import com.wechat.notice.util.SignatureUtil;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * WeChatTicketManager测试类
+ * 使用桩HTTP客户端模拟企业微信票据接口
+ *
+ * @author fyf
+ */
+public class WeChatTicketManagerTest {
+    
+    private StubHttpClient httpClient;
+    private WeChatTicketManager ticketManager;
+    private WeChatAppConfig appConfig;
+    
+    @Before
+    public void setUp() {
+        WeChatNoticeProperties properties = WeChatConfigBuilder.create().build();
+        ObjectMapper objectMapper = new ObjectMapper();
+        httpClient = new StubHttpClient();
+        WeChatTokenManager tokenManager = new WeChatTokenManager(httpClient, objectMapper, properties);
+        ticketManager = new WeChatTicketManager(httpClient, objectMapper, tokenManager, properties);
+        appConfig = WeChatAppConfig.builder()
+                .appName("test-app")
+                .corpId("test-corp-id")
+                .secret("test-secret")
+                .agentId(1000001)
+                .build();
+    }
+    
+    @Test
+    public void testTicketsCachedPerType() {
+        assertEquals("jsapi-ticket-1", ticketManager.getJsapiTicket(appConfig));
+        assertEquals("agent-ticket-2", ticketManager.getAgentConfigTicket(appConfig));
+        assertEquals("jsapi-ticket-1", ticketManager.getJsapiTicket(appConfig));
+        assertEquals("agent-ticket-2", ticketManager.getAgentConfigTicket(appConfig));
+        
+        assertEquals(2, httpClient.ticketCalls.get());
+        assertEquals(1, httpClient.tokenCalls.get());
+    }
+    
+    @Test
+    public void testJsapiTicketSharedPerCorp() {
+        WeChatAppConfig otherApp = appConfig.toBuilder()
+                .appName("other-app")
+                .secret("other-secret")
+                .agentId(1000002)
+                .build();
+        
+        // 企业jsapi_ticket同一企业共享，应用jsapi_ticket各应用独立获取
+        assertEquals(ticketManager.getJsapiTicket(appConfig), ticketManager.getJsapiTicket(otherApp));
+        ticketManager.getAgentConfigTicket(appConfig);
+        ticketManager.getAgentConfigTicket(otherApp);
+        assertEquals(3, httpClient.ticketCalls.get());
+    }
+    
+    @Test
+    public void testConcurrentRefreshIsSingleFlight() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return ticketManager.getJsapiTicket(appConfig);
+                }));
+            }
+            start.countDown();
+            for (Future<String> future : futures) {
+                assertEquals("jsapi-ticket-1", future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertEquals(1, httpClient.ticketCalls.get());
+    }
+    
+    @Test
+    public void testSignJsapi() {
+        String url = "https://example.com/page?id=1&name=测试";
+        JsapiSignature signature = ticketManager.signJsapi(appConfig, url);
+        
+        String expected = DigestUtils.sha1Hex("jsapi_ticket=jsapi-ticket-1&noncestr=" + signature.getNonceStr()
+                + "&timestamp=" + signature.getTimestamp() + "&url=" + url);
+        assertEquals(expected, signature.getSignature());
+        assertEquals("test-corp-id", signature.getCorpId());
+        
+        // 签名器按线程复用缓冲区，连续签名结果互不影响
+        assertEquals(DigestUtils.sha1Hex("jsapi_ticket=t&noncestr=n&timestamp=1&url=u"),
+                SignatureUtil.jsapiSignature("t", "n", 1, "u"));
+    }
+}
\ No newline at end of file
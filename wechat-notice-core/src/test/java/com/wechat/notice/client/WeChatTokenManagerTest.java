@@ -0,0 +1,285 @@
+package com.wechat.notice.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wechat.notice.client.token.AccessToken;
+import com.wechat.notice.config.WeChatAppConfig;
+import com.wechat.notice.config.WeChatConfigBuilder;
+import com.wechat.notice.config.WeChatNoticeProperties;
+import com.wechat.notice.exception.WeChatNoticeException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * WeChatTokenManager测试类
+ * 使用桩HTTP客户端模拟企业微信gettoken接口
+ *
+ * @author fyf
+ */
+public class WeChatTokenManagerTest {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private StubHttpClient httpClient;
+    private WeChatTokenManager tokenManager;
+    private WeChatAppConfig appConfig;
+    
+    @Before
+    public void setUp() {
+        WeChatNoticeProperties properties = WeChatConfigBuilder.create().build();
+        httpClient = new StubHttpClient();
+        tokenManager = new WeChatTokenManager(httpClient, new ObjectMapper(), properties);
+        appConfig = WeChatAppConfig.builder()
+                .appName("test-app")
+                .corpId("test-corp-id")
+                .secret("test-secret")
+                .agentId(1000001)
+                .build();
+    }
+    
+    @Test
+    public void testTokenCached() {
+        assertEquals("token-1", tokenManager.getAccessToken(appConfig));
+        assertEquals("token-1", tokenManager.getAccessToken(appConfig));
+        assertEquals(1, httpClient.tokenCalls.get());
+    }
+    
+    @Test
+    public void testClearTokenCache() {
+        assertEquals("token-1", tokenManager.getAccessToken(appConfig));
+        tokenManager.clearTokenCache(appConfig);
+        assertEquals("token-2", tokenManager.getAccessToken(appConfig));
+        assertEquals(2, httpClient.tokenCalls.get());
+    }
+    
+    @Test
+    public void testAppsWithSameSecretShareToken() {
+        WeChatAppConfig alias = appConfig.toBuilder()
+                .appName("alias-app")
+                .agentId(1000002)
+                .build();
+        WeChatAppConfig otherSecret = appConfig.toBuilder()
+                .appName("other-app")
+                .secret("other-secret")
+                .build();
+        
+        assertEquals("token-1", tokenManager.getAccessToken(appConfig));
+        assertEquals("token-1", tokenManager.getAccessToken(alias));
+        assertEquals(1, httpClient.tokenCalls.get());
+        
+        assertEquals("token-2", tokenManager.getAccessToken(otherSecret));
+        assertEquals(2, httpClient.tokenCalls.get());
+    }
+    
+    @Test
+    public void testMissingSecretRejected() {
+        WeChatAppConfig noSecret = appConfig.toBuilder().appName("no-secret").secret(null).build();
+        try {
+            tokenManager.getAccessToken(noSecret);
+            fail("未配置Secret时应抛出异常");
+        } catch (WeChatNoticeException e) {
+            assertTrue(e.getMessage().contains("no-secret"));
+        }
+        assertEquals(0, httpClient.tokenCalls.get());
+    }
+    
+    @Test
+    public void testConcurrentRefreshIsSingleFlight() throws Exception {
+        httpClient.tokenDelayMillis = 200;
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return tokenManager.getAccessToken(appConfig);
+                }));
+            }
+            start.countDown();
+            for (Future<String> future : futures) {
+                assertEquals("token-1", future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertEquals(1, httpClient.tokenCalls.get());
+    }
+    
+    @Test
+    public void testBackgroundRefreshAheadOfExpiry() throws Exception {
+        WeChatNoticeProperties properties = WeChatConfigBuilder.create().build();
+        // 生命周期仅剩十万分之一时刷新，约70毫秒后触发
+        properties.getApi().setTokenRefreshAheadRatio(0.99999);
+        StubHttpClient client = new StubHttpClient();
+        try (WeChatTokenManager manager = new WeChatTokenManager(client, new ObjectMapper(), properties)) {
+            assertEquals("token-1", manager.getAccessToken(appConfig));
+            
+            long deadline = System.currentTimeMillis() + 5000;
+            while (client.tokenCalls.get() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            
+            assertTrue(client.tokenCalls.get() >= 2);
+            assertNotEquals("token-1", manager.getAccessToken(appConfig));
+        }
+    }
+    
+    @Test
+    public void testExpiresInHonored() throws Exception {
+        WeChatNoticeProperties properties = WeChatConfigBuilder.create().build();
+        properties.getApi().setTokenRefreshAheadRatio(0);
+        properties.getApi().setTokenExpireSafetyMargin(0);
+        properties.getApi().setTokenExpireJitter(0);
+        StubHttpClient client = new StubHttpClient();
+        client.expiresIn = 1;
+        WeChatTokenManager manager = new WeChatTokenManager(client, new ObjectMapper(), properties);
+        
+        assertEquals("token-1", manager.getAccessToken(appConfig));
+        assertEquals("token-1", manager.getAccessToken(appConfig));
+        Thread.sleep(1100);
+        assertEquals("token-2", manager.getAccessToken(appConfig));
+    }
+    
+    @Test
+    public void testStaleTokenServedDuringTransientFailure() throws Exception {
+        WeChatNoticeProperties properties = shortLivedProperties();
+        properties.getApi().setTokenStaleGracePeriod(300);
+        WeChatTokenManager manager = new WeChatTokenManager(httpClient, new ObjectMapper(), properties);
+        httpClient.expiresIn = 1;
+        assertEquals("token-1", manager.getAccessToken(appConfig));
+        Thread.sleep(1100);
+        
+        httpClient.tokenBody = "{\"errcode\":-1,\"errmsg\":\"system busy\"}";
+        AccessToken staleToken = manager.getToken(appConfig);
+        assertEquals("token-1", staleToken.getToken());
+        assertFalse(staleToken.isValid(System.currentTimeMillis()));
+        
+        // 后台重试期间不再同步调用gettoken
+        assertEquals("token-1", manager.getAccessToken(appConfig));
+        assertEquals(2, httpClient.tokenCalls.get());
+    }
+    
+    @Test(expected = WeChatNoticeException.class)
+    public void testStaleTokenNotServedByDefault() throws Exception {
+        WeChatTokenManager manager = new WeChatTokenManager(httpClient, new ObjectMapper(), shortLivedProperties());
+        httpClient.expiresIn = 1;
+        manager.getAccessToken(appConfig);
+        Thread.sleep(1100);
+        
+        // 未配置宽限期时临时失败同样直接抛出
+        httpClient.tokenBody = "{\"errcode\":-1,\"errmsg\":\"system busy\"}";
+        manager.getAccessToken(appConfig);
+    }
+    
+    @Test(expected = WeChatNoticeException.class)
+    public void testStaleTokenNotServedOnCredentialError() throws Exception {
+        WeChatNoticeProperties properties = shortLivedProperties();
+        properties.getApi().setTokenStaleGracePeriod(300);
+        WeChatTokenManager manager = new WeChatTokenManager(httpClient, new ObjectMapper(), properties);
+        httpClient.expiresIn = 1;
+        manager.getAccessToken(appConfig);
+        Thread.sleep(1100);
+        
+        httpClient.tokenBody = "{\"errcode\":40001,\"errmsg\":\"invalid credential\"}";
+        manager.getAccessToken(appConfig);
+    }
+    
+    @Test
+    public void testCredentialFailureBackoff() {
+        httpClient.tokenBody = "{\"errcode\":40001,\"errmsg\":\"invalid credential\"}";
+        for (int i = 0; i < 3; i++) {
+            try {
+                tokenManager.getAccessToken(appConfig);
+                fail("凭证错误时应抛出异常");
+            } catch (WeChatNoticeException e) {
+                assertEquals(Integer.valueOf(40001), e.getErrorCode());
+            }
+        }
+        // 退避期内直接失败，不再请求gettoken
+        assertEquals(1, httpClient.tokenCalls.get());
+        
+        // 修正Secret后凭证标识变化，立即重新获取
+        httpClient.tokenBody = null;
+        WeChatAppConfig fixed = appConfig.toBuilder().secret("fixed-secret").build();
+        assertEquals("token-2", tokenManager.getAccessToken(fixed));
+    }
+    
+    @Test
+    public void testFileTokenStoreSharedAcrossManagers() {
+        WeChatNoticeProperties properties = WeChatConfigBuilder.create().build();
+        properties.getApi().setTokenStorePath(folder.getRoot().toPath().resolve("tokens.dat").toString());
+        
+        StubHttpClient first = new StubHttpClient();
+        try (WeChatTokenManager manager = new WeChatTokenManager(first, new ObjectMapper(), properties)) {
+            assertEquals("token-1", manager.getAccessToken(appConfig));
+        }
+        
+        // 模拟进程重启：新的管理器直接复用文件中的Token
+        StubHttpClient second = new StubHttpClient();
+        try (WeChatTokenManager manager = new WeChatTokenManager(second, new ObjectMapper(), properties)) {
+            assertEquals("token-1", manager.getAccessToken(appConfig));
+            assertEquals(0, second.tokenCalls.get());
+        }
+    }
+    
+    @Test
+    public void testWarmUp() {
+        Map<String, WeChatAppConfig> apps = new LinkedHashMap<>();
+        apps.put("app1", appConfig);
+        apps.put("app2", appConfig.toBuilder().appName("app2").secret("secret2").build());
+        
+        Map<String, Boolean> results = tokenManager.warmUp(apps, 2, 5000);
+        
+        assertEquals(2, results.size());
+        assertTrue(results.get("app1"));
+        assertTrue(results.get("app2"));
+        assertEquals(2, httpClient.tokenCalls.get());
+        
+        // 预热后直接命中缓存
+        tokenManager.getAccessToken(apps.get("app2"));
+        assertEquals(2, httpClient.tokenCalls.get());
+    }
+    
+    @Test
+    public void testWarmUpRespectsTimeBudget() throws Exception {
+        httpClient.tokenDelayMillis = 500;
+        
+        long start = System.currentTimeMillis();
+        Map<String, Boolean> results = tokenManager.warmUp(Collections.singletonMap("app1", appConfig), 1, 100);
+        
+        assertFalse(results.get("app1"));
+        assertTrue(System.currentTimeMillis() - start < 450);
+        
+        // 超出预算的获取在后台继续完成
+        Thread.sleep(600);
+        assertEquals("token-1", tokenManager.getAccessToken(appConfig));
+        assertEquals(1, httpClient.tokenCalls.get());
+    }
+
+    
+    private WeChatNoticeProperties shortLivedProperties() {
+        WeChatNoticeProperties properties = WeChatConfigBuilder.create().build();
+        properties.getApi().setTokenRefreshAheadRatio(0);
+        properties.getApi().setTokenExpireSafetyMargin(0);
+        properties.getApi().setTokenExpireJitter(0);
+        return properties;
+    }
+}
\ No newline at end of file
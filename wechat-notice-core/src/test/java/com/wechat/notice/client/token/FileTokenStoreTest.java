@@ -0,0 +1,127 @@
+package com.wechat.notice.client.token;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * FileTokenStore测试类
+ *
+ * @author fyf
+ */
+public class FileTokenStoreTest {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void testPutAndGet() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("tokens.dat");
+        try (FileTokenStore store = new FileTokenStore(path)) {
+            assertNull(store.get("corp_1"));
+            
+            long now = System.currentTimeMillis();
+            store.put("corp_1", new AccessToken("token-1", now, now + 60000));
+            
+            AccessToken token = store.get("corp_1");
+            assertEquals("token-1", token.getToken());
+            assertEquals(now, token.getIssuedTime());
+            assertEquals(now + 60000, token.getExpiresTime());
+        }
+    }
+    
+    @Test
+    public void testTokenSurvivesReopen() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("tokens.dat");
+        long now = System.currentTimeMillis();
+        try (FileTokenStore store = new FileTokenStore(path)) {
+            store.put("corp_1", new AccessToken("token-1", now, now + 60000));
+            store.put("corp_2", new AccessToken("token-2", now, now + 60000));
+        }
+        
+        try (FileTokenStore reopened = new FileTokenStore(path)) {
+            assertEquals("token-1", reopened.get("corp_1").getToken());
+            assertEquals("token-2", reopened.get("corp_2").getToken());
+        }
+    }
+    
+    @Test
+    public void testConditionalRemove() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("tokens.dat");
+        long now = System.currentTimeMillis();
+        try (FileTokenStore store = new FileTokenStore(path);
+             FileTokenStore other = new FileTokenStore(path)) {
+            store.put("corp_1", new AccessToken("token-1", now, now + 60000));
+            
+            assertFalse(store.remove("corp_1", "token-0"));
+            assertEquals("token-1", other.get("corp_1").getToken());
+            
+            assertTrue(store.remove("corp_1", "token-1"));
+            assertNull(store.get("corp_1"));
+        }
+    }
+    
+    @Test
+    public void testInterruptedWriterDoesNotCloseStore() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("tokens.dat");
+        long now = System.currentTimeMillis();
+        try (FileTokenStore store = new FileTokenStore(path);
+             FileTokenStore other = new FileTokenStore(path)) {
+            Thread.currentThread().interrupt();
+            try {
+                store.put("corp_1", new AccessToken("token-1", now, now + 60000));
+                // 中断标记保留给调用方
+                assertTrue(Thread.currentThread().isInterrupted());
+            } finally {
+                Thread.interrupted();
+            }
+            
+            store.put("corp_2", new AccessToken("token-2", now, now + 60000));
+            assertEquals("token-1", other.get("corp_1").getToken());
+            assertEquals("token-2", other.get("corp_2").getToken());
+        }
+    }
+    
+    @Test
+    public void testInterruptedWriterThread() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("tokens.dat");
+        long now = System.currentTimeMillis();
+        try (FileTokenStore store = new FileTokenStore(path);
+             FileTokenStore other = new FileTokenStore(path)) {
+            // 写入线程在持续写入过程中被中断，例如调度器shutdownNow
+            Thread writer = new Thread(() -> {
+                for (int i = 0; !Thread.currentThread().isInterrupted() || i < 100; i++) {
+                    store.put("corp_1", new AccessToken("token-" + i, now, now + 60000));
+                }
+            });
+            writer.start();
+            writer.interrupt();
+            writer.join(5000);
+            assertFalse(writer.isAlive());
+            
+            store.put("corp_2", new AccessToken("token-2", now, now + 60000));
+            assertEquals("token-2", other.get("corp_2").getToken());
+        }
+    }
+    
+    @Test
+    public void testEvictsEarliestExpiringWhenFull() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("tokens.dat");
+        long now = System.currentTimeMillis();
+        try (FileTokenStore store = new FileTokenStore(path, 2)) {
+            store.put("corp_1", new AccessToken("token-1", now, now + 10000));
+            store.put("corp_2", new AccessToken("token-2", now, now + 60000));
+            store.put("corp_3", new AccessToken("token-3", now, now + 60000));
+        }
+        
+        try (FileTokenStore reopened = new FileTokenStore(path)) {
+            assertNull(reopened.get("corp_1"));
+            assertEquals("token-2", reopened.get("corp_2").getToken());
+            assertEquals("token-3", reopened.get("corp_3").getToken());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,156 @@
+package com.wechat.notice.client.transport;
+
+import com.wechat.notice.config.WeChatConfigBuilder;
+import com.wechat.notice.config.WeChatNoticeProperties;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+
+/**
+ * WeChatEndpointRouter测试类
+ *
+ * @author fyf
+ */
+public class WeChatEndpointRouterTest {
+    
+    private static final String SEND_URL = "https://qyapi.weixin.qq.com/cgi-bin/message/send?access_token=t";
+    
+    private WeChatNoticeProperties properties;
+    private FakeTransport delegate;
+    
+    @Before
+    public void setUp() {
+        properties = WeChatConfigBuilder.create().build();
+        properties.getApi().setBaseUrls(Arrays.asList("http://proxy-a/", "http://proxy-b"));
+        properties.getApi().setEndpointProbeInterval(60000);
+        delegate = new FakeTransport();
+    }
+    
+    @Test
+    public void testSingleEndpointNotWrapped() {
+        WeChatNoticeProperties single = WeChatConfigBuilder.create().build();
+        assertSame(delegate, new WeChatEndpointRouter(single).route(delegate));
+    }
+    
+    @Test
+    public void testSlowEndpointAvoided() throws Exception {
+        delegate.slowHost = "proxy-a";
+        WeChatEndpointRouter router = new WeChatEndpointRouter(properties);
+        WeChatTransport transport = router.route(delegate);
+        
+        for (int i = 0; i < 20; i++) {
+            transport.execute(request());
+        }
+        
+        // 两个地址各试一次后，请求集中到延迟低的地址
+        assertEquals("http://proxy-a/cgi-bin/message/send?access_token=t", delegate.urls.get(0));
+        assertEquals("http://proxy-b/cgi-bin/message/send?access_token=t", delegate.urls.get(1));
+        long toB = delegate.urls.stream().filter(url -> url.startsWith("http://proxy-b/")).count();
+        assertEquals(19, toB);
+        assertTrue(router.getEndpoints().get(0).getLatencyMillis() > router.getEndpoints().get(1).getLatencyMillis());
+    }
+    
+    @Test
+    public void testFailingEndpointEjectedAndProbed() throws Exception {
+        properties.getApi().setEndpointProbeInterval(50);
+        properties.getApi().setEndpointEjectionTime(300);
+        delegate.failingHost = "proxy-a";
+        WeChatEndpointRouter router = new WeChatEndpointRouter(properties);
+        WeChatTransport transport = router.route(delegate);
+        
+        // 失败一次后请求转向其他地址
+        assertEquals(1, sendAll(transport, 10));
+        assertFalse(router.getEndpoints().get(0).isEjected());
+        
+        // 探测请求再次失败，错误率达到阈值后摘除，摘除期间不再探测
+        Thread.sleep(60);
+        assertEquals(1, sendAll(transport, 1));
+        assertTrue(router.getEndpoints().get(0).isEjected());
+        Thread.sleep(60);
+        assertEquals(0, sendAll(transport, 10));
+        
+        // 摘除到期后放行一个探测请求，成功即恢复
+        delegate.failingHost = null;
+        Thread.sleep(300);
+        assertEquals(200, transport.executeAsync(request()).get().getStatusCode());
+        assertTrue(delegate.urls.get(delegate.urls.size() - 1).startsWith("http://proxy-a/"));
+        assertFalse(router.getEndpoints().get(0).isEjected());
+    }
+    
+    @Test
+    public void testServerErrorsCountAsFailures() throws Exception {
+        delegate.badGatewayHost = "proxy-a";
+        WeChatEndpointRouter router = new WeChatEndpointRouter(properties);
+        WeChatTransport transport = router.route(delegate);
+        
+        for (int i = 0; i < 10; i++) {
+            transport.execute(request());
+        }
+        assertTrue(router.getEndpoints().get(0).getErrorRate() > 0);
+        assertEquals(0, router.getEndpoints().get(1).getErrorRate(), 0);
+    }
+    
+    private static int sendAll(WeChatTransport transport, int count) {
+        int failures = 0;
+        for (int i = 0; i < count; i++) {
+            try {
+                transport.execute(request());
+            } catch (IOException e) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+    
+    private static WeChatHttpRequest request() {
+        return WeChatHttpRequest.builder().method(WeChatHttpRequest.POST).url(SEND_URL).body(new byte[0]).build();
+    }
+    
+    /**
+     * 按主机名模拟延迟与故障的传输层
+     */
+    private static class FakeTransport implements WeChatTransport {
+        
+        final List<String> urls = new CopyOnWriteArrayList<>();
+        volatile String slowHost;
+        volatile String failingHost;
+        volatile String badGatewayHost;
+        
+        @Override
+        public WeChatHttpResponse execute(WeChatHttpRequest request) throws IOException {
+            String url = request.getUrl();
+            urls.add(url);
+            if (failingHost != null && url.contains(failingHost)) {
+                throw new ConnectException("Connection refused");
+            }
+            if (slowHost != null && url.contains(slowHost)) {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            int status = badGatewayHost != null && url.contains(badGatewayHost) ? 502 : 200;
+            return new WeChatHttpResponse(status, "{\"errcode\":0}".getBytes());
+        }
+        
+        @Override
+        public CompletableFuture<WeChatHttpResponse> executeAsync(WeChatHttpRequest request) {
+            CompletableFuture<WeChatHttpResponse> future = new CompletableFuture<>();
+            try {
+                future.complete(execute(request));
+            } catch (IOException e) {
+                future.completeExceptionally(e);
+            }
+            return future;
+        }
+    }
+}
\ No newline at end of file
@@ -137,5 +137,10 @@ public class WeChatMessageBuilderTest {
         assertNotNull(MessageType.valueOf("TEXTCARD"));
         assertNotNull(MessageType.valueOf("NEWS"));
         assertNotNull(MessageType.valueOf("MARKDOWN"));
+        
+        // 非字面量的类型代码同样能解析
+        assertSame(MessageType.TEMPLATE_CARD, MessageType.of(new String("template_card")));
+        assertNull(MessageType.of("unknown"));
+        assertNull(MessageType.of(null));
     }
 }
\ No newline at end of file
@@ -5,19 +5,37 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.wechat.notice.client.WeChatApiClient;
+import com.wechat.notice.client.WeChatConnectionWarmer;
+import com.wechat.notice.client.WeChatHttpClients;
+import com.wechat.notice.client.WeChatTicketManager;
 import com.wechat.notice.client.WeChatTokenManager;
+import com.wechat.notice.client.token.FileTokenStore;
+import com.wechat.notice.client.token.InMemoryTokenStore;
+import com.wechat.notice.client.token.TokenStore;
+import com.wechat.notice.client.transport.ApacheWeChatTransport;
+import com.wechat.notice.client.transport.WeChatEndpointRouter;
+import com.wechat.notice.client.transport.WeChatTransport;
 import com.wechat.notice.config.WeChatNoticeProperties;
 import com.wechat.notice.starter.config.SpringWeChatNoticeProperties;
 import com.wechat.notice.service.WeChatAppConfigService;
 import com.wechat.notice.service.WeChatNoticeService;
 import com.wechat.notice.service.impl.WeChatAppConfigServiceImpl;
 import com.wechat.notice.service.impl.WeChatNoticeServiceImpl;
+import com.wechat.notice.starter.condition.ConditionalOnWeChatApacheTransport;
+import com.wechat.notice.starter.condition.ConditionalOnWeChatConnectionWarmUpEnabled;
+import com.wechat.notice.starter.condition.ConditionalOnWeChatJdkTransport;
 import com.wechat.notice.starter.condition.ConditionalOnWeChatNoticeEnabled;
 import com.wechat.notice.starter.condition.ConditionalOnWeChatPortalEnabled;
+import com.wechat.notice.starter.condition.ConditionalOnWeChatTokenWarmUpEnabled;
 import com.wechat.notice.starter.controller.WeChatPortalController;
+import com.wechat.notice.starter.transport.JdkWeChatTransport;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -26,9 +44,11 @@ import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguratio
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
 
 import jakarta.annotation.PostConstruct;
-import java.util.concurrent.TimeUnit;
+import java.nio.file.Paths;
 
 /**
  * 微信通知自动配置类 - SpringBoot 3
@@ -65,22 +85,118 @@ public class WeChatNoticeAutoConfiguration {
 
     /**
      * HTTP客户端配置
+     * 标注为@Primary，应用按类型注入CloseableHttpClient时不会与weChatTokenHttpClient冲突；
+     * 自定义同名Bean（如配置代理、TLS）时同样需要标注@Primary，并同时替换weChatTokenHttpClient，
+     * 否则gettoken与票据请求仍使用默认客户端
      */
     @Bean("weChatHttpClient")
+    @Primary
+    @ConditionalOnWeChatApacheTransport
     @ConditionalOnMissingBean(name = "weChatHttpClient")
-    public CloseableHttpClient weChatHttpClient() {
-        CloseableHttpClient httpClient = HttpClients.custom()
-                .setConnectionTimeToLive(30, TimeUnit.SECONDS)
-                .setMaxConnTotal(200)
-                .setMaxConnPerRoute(50)
-                .evictExpiredConnections()
-                .evictIdleConnections(30, TimeUnit.SECONDS)
-                .build();
+    public CloseableHttpClient weChatHttpClient(WeChatNoticeProperties properties) {
+        CloseableHttpClient httpClient = WeChatHttpClients.createHttpClient(properties);
         
-        log.debug("WeChat HttpClient配置完成");
+        log.debug("WeChat HttpClient配置完成: maxConnections={}, maxConnectionsPerRoute={}",
+                properties.getApi().getMaxConnections(), properties.getApi().getMaxConnectionsPerRoute());
         return httpClient;
     }
     
+    /**
+     * 异步HTTP客户端配置
+     * 供sendMessageAsync等异步发送方法使用，并发请求数取决于连接数而非线程数；
+     * 首次异步发送时才创建并启动，只使用同步发送时不占用IO线程
+     */
+    @Bean("weChatAsyncHttpClient")
+    @Lazy
+    @ConditionalOnWeChatApacheTransport
+    @ConditionalOnMissingBean(name = "weChatAsyncHttpClient")
+    public CloseableHttpAsyncClient weChatAsyncHttpClient(WeChatNoticeProperties properties) {
+        CloseableHttpAsyncClient httpClient = WeChatHttpClients.createAsyncHttpClient(properties);
+        
+        log.debug("WeChat AsyncHttpClient配置完成");
+        return httpClient;
+    }
+    
+    /**
+     * Token获取专用HTTP客户端配置
+     * 与消息发送使用的连接池隔离，发送高峰占满连接时gettoken无需排队
+     */
+    @Bean("weChatTokenHttpClient")
+    @ConditionalOnWeChatApacheTransport
+    @ConditionalOnMissingBean(name = "weChatTokenHttpClient")
+    public CloseableHttpClient weChatTokenHttpClient(WeChatNoticeProperties properties) {
+        CloseableHttpClient httpClient = WeChatHttpClients.createTokenHttpClient(properties);
+        
+        log.debug("WeChat Token HttpClient配置完成: maxConnections={}", properties.getApi().getTokenMaxConnections());
+        return httpClient;
+    }
+    
+    /**
+     * API地址路由器配置
+     * 配置多个base-urls时，Token、票据与消息发送共享各地址的健康状态
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public WeChatEndpointRouter weChatEndpointRouter(WeChatNoticeProperties properties) {
+        WeChatEndpointRouter router = new WeChatEndpointRouter(properties);
+        log.debug("WeChat EndpointRouter配置完成: endpoints={}", router.getEndpoints());
+        return router;
+    }
+    
+    /**
+     * 消息发送传输层配置
+     * 默认基于Apache HttpClient，可声明同名Bean替换为其他HTTP实现
+     */
+    @Bean("weChatTransport")
+    @Primary
+    @ConditionalOnWeChatApacheTransport
+    @ConditionalOnMissingBean(name = "weChatTransport")
+    public WeChatTransport weChatTransport(@Qualifier("weChatHttpClient") CloseableHttpClient weChatHttpClient,
+                                           @Qualifier("weChatAsyncHttpClient") ObjectProvider<CloseableHttpAsyncClient> weChatAsyncHttpClient,
+                                           WeChatEndpointRouter weChatEndpointRouter) {
+        log.debug("WeChat Transport配置完成");
+        return weChatEndpointRouter.route(new ApacheWeChatTransport(weChatHttpClient, weChatAsyncHttpClient::getObject));
+    }
+    
+    /**
+     * Token与票据获取传输层配置
+     */
+    @Bean("weChatTokenTransport")
+    @ConditionalOnWeChatApacheTransport
+    @ConditionalOnMissingBean(name = "weChatTokenTransport")
+    public WeChatTransport weChatTokenTransport(@Qualifier("weChatTokenHttpClient") CloseableHttpClient weChatTokenHttpClient,
+                                                WeChatEndpointRouter weChatEndpointRouter) {
+        log.debug("WeChat Token Transport配置完成");
+        return weChatEndpointRouter.route(new ApacheWeChatTransport(weChatTokenHttpClient));
+    }
+    
+    /**
+     * 基于JDK HttpClient的消息发送传输层配置
+     * 优先协商HTTP/2，并发发送在少量连接上多路复用
+     */
+    @Bean("weChatTransport")
+    @Primary
+    @ConditionalOnWeChatJdkTransport
+    @ConditionalOnMissingBean(name = "weChatTransport")
+    public WeChatTransport weChatJdkTransport(WeChatNoticeProperties properties,
+                                              WeChatEndpointRouter weChatEndpointRouter) {
+        log.debug("WeChat JDK Transport配置完成");
+        return weChatEndpointRouter.route(new JdkWeChatTransport(JdkWeChatTransport.createHttpClient(properties)));
+    }
+    
+    /**
+     * 基于JDK HttpClient的Token与票据获取传输层配置
+     * 使用独立的HttpClient，与消息发送的连接互不影响
+     */
+    @Bean("weChatTokenTransport")
+    @ConditionalOnWeChatJdkTransport
+    @ConditionalOnMissingBean(name = "weChatTokenTransport")
+    public WeChatTransport weChatJdkTokenTransport(WeChatNoticeProperties properties,
+                                                   WeChatEndpointRouter weChatEndpointRouter) {
+        log.debug("WeChat JDK Token Transport配置完成");
+        return weChatEndpointRouter.route(new JdkWeChatTransport(JdkWeChatTransport.createHttpClient(properties)));
+    }
+    
     /**
      * Core配置适配器
      */
@@ -90,16 +206,45 @@ public class WeChatNoticeAutoConfiguration {
         return springProperties.toCoreProperties();
     }
     
+    /**
+     * Token存储配置
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public TokenStore weChatTokenStore(WeChatNoticeProperties properties) {
+        String storePath = properties.getApi().getTokenStorePath();
+        if (StringUtils.isNotBlank(storePath)) {
+            log.debug("WeChat TokenStore配置完成: file={}", storePath);
+            return new FileTokenStore(Paths.get(storePath));
+        }
+        log.debug("WeChat TokenStore配置完成: memory");
+        return new InMemoryTokenStore();
+    }
+    
     /**
      * Token管理器配置
      */
     @Bean
     @ConditionalOnMissingBean
-    public WeChatTokenManager weChatTokenManager(CloseableHttpClient weChatHttpClient, 
+    public WeChatTokenManager weChatTokenManager(@Qualifier("weChatTokenTransport") WeChatTransport weChatTokenTransport,
                                                 ObjectMapper weChatObjectMapper,
-                                                WeChatNoticeProperties properties) {
+                                                WeChatNoticeProperties properties,
+                                                TokenStore weChatTokenStore) {
         log.debug("WeChat TokenManager配置完成");
-        return new WeChatTokenManager(weChatHttpClient, weChatObjectMapper, properties);
+        return new WeChatTokenManager(weChatTokenTransport, weChatObjectMapper, properties, weChatTokenStore);
+    }
+    
+    /**
+     * JS-SDK票据管理器配置
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public WeChatTicketManager weChatTicketManager(@Qualifier("weChatTokenTransport") WeChatTransport weChatTokenTransport,
+                                                  ObjectMapper weChatObjectMapper,
+                                                  WeChatTokenManager weChatTokenManager,
+                                                  WeChatNoticeProperties properties) {
+        log.debug("WeChat TicketManager配置完成");
+        return new WeChatTicketManager(weChatTokenTransport, weChatObjectMapper, weChatTokenManager, properties);
     }
     
     /**
@@ -107,12 +252,12 @@ public class WeChatNoticeAutoConfiguration {
      */
     @Bean
     @ConditionalOnMissingBean
-    public WeChatApiClient weChatApiClient(CloseableHttpClient weChatHttpClient,
+    public WeChatApiClient weChatApiClient(@Qualifier("weChatTransport") WeChatTransport weChatTransport,
                                           ObjectMapper weChatObjectMapper,
                                           WeChatTokenManager weChatTokenManager,
                                           WeChatNoticeProperties properties) {
         log.debug("WeChat ApiClient配置完成");
-        return new WeChatApiClient(weChatHttpClient, weChatObjectMapper, weChatTokenManager, properties);
+        return new WeChatApiClient(weChatTransport, weChatObjectMapper, weChatTokenManager, properties);
     }
     
     /**
@@ -137,6 +282,43 @@ public class WeChatNoticeAutoConfiguration {
         return new WeChatNoticeServiceImpl(weChatApiClient, weChatAppConfigService, properties);
     }
     
+    /**
+     * Token预热配置
+     * 启动完成前按预算并发获取所有应用的Token，超出预算的应用转入后台继续获取
+     */
+    @Bean
+    @ConditionalOnWeChatTokenWarmUpEnabled
+    @ConditionalOnMissingBean(name = "weChatTokenWarmUpRunner")
+    public ApplicationRunner weChatTokenWarmUpRunner(WeChatTokenManager weChatTokenManager,
+                                                     WeChatAppConfigService weChatAppConfigService) {
+        log.debug("WeChat Token预热配置完成");
+        return args -> weChatTokenManager.warmUp(weChatAppConfigService.getAllApps());
+    }
+    
+    /**
+     * 消息发送连接预热器配置
+     */
+    @Bean
+    @ConditionalOnWeChatConnectionWarmUpEnabled
+    @ConditionalOnMissingBean
+    public WeChatConnectionWarmer weChatConnectionWarmer(@Qualifier("weChatTransport") WeChatTransport weChatTransport,
+                                                         WeChatNoticeProperties properties) {
+        log.debug("WeChat ConnectionWarmer配置完成: size={}", properties.getApi().getConnectionWarmUpSize());
+        return new WeChatConnectionWarmer(weChatTransport, properties);
+    }
+    
+    /**
+     * 连接预热配置
+     * 启动完成前建立连接，之后定期保活
+     */
+    @Bean
+    @ConditionalOnWeChatConnectionWarmUpEnabled
+    @ConditionalOnMissingBean(name = "weChatConnectionWarmUpRunner")
+    public ApplicationRunner weChatConnectionWarmUpRunner(WeChatConnectionWarmer weChatConnectionWarmer) {
+        log.debug("WeChat 连接预热配置完成");
+        return args -> weChatConnectionWarmer.start();
+    }
+    
     /**
      * Portal控制器配置
      */
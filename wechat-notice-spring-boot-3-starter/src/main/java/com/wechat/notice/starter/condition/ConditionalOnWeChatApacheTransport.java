@@ -0,0 +1,23 @@
+package com.wechat.notice.starter.condition;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+import java.lang.annotation.*;
+
+/**
+ * Apache HttpClient传输层启用条件注解
+ * 未配置传输层时默认启用
+ * 
+ * @author fyf
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ConditionalOnProperty(
+    prefix = "wechat.notice.api", 
+    name = "transport", 
+    havingValue = "apache",
+    matchIfMissing = true
+)
+public @interface ConditionalOnWeChatApacheTransport {
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.wechat.notice.starter.condition;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+import java.lang.annotation.*;
+
+/**
+ * JDK HttpClient传输层启用条件注解
+ * 
+ * @author fyf
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ConditionalOnProperty(
+    prefix = "wechat.notice.api", 
+    name = "transport", 
+    havingValue = "jdk"
+)
+public @interface ConditionalOnWeChatJdkTransport {
+}
\ No newline at end of file
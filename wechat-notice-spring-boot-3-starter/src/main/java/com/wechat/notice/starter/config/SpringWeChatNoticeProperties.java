@@ -4,7 +4,9 @@ import com.wechat.notice.config.WeChatNoticeProperties;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -111,6 +113,7 @@ public class SpringWeChatNoticeProperties {
         
         /**
          * 是否启用重试机制
+         * 异步发送的退避由定时器触发，不占用线程；同步发送另需开启syncRetryEnabled
          */
         private boolean retryEnabled = true;
         
@@ -118,6 +121,231 @@ public class SpringWeChatNoticeProperties {
          * 重试次数
          */
         private int retryCount = 3;
+        
+        /**
+         * 同步发送是否重试
+         * 同步重试的退避期间阻塞调用线程，默认关闭，只有异步发送重试；启用后仍受retryEnabled控制
+         */
+        private boolean syncRetryEnabled = false;
+        
+        /**
+         * Token提前刷新比例（0~1）
+         * Token剩余有效期低于生命周期的该比例时由后台线程主动刷新，0表示关闭后台刷新
+         */
+        private double tokenRefreshAheadRatio = 0.2;
+        
+        /**
+         * 后台Token刷新线程数
+         */
+        private int tokenRefreshThreads = 1;
+        
+        /**
+         * Token过期安全余量（秒）
+         * 按gettoken返回的expires_in计算过期时间时提前该时长视为过期
+         */
+        private int tokenExpireSafetyMargin = 300;
+        
+        /**
+         * Token过期随机抖动上限（秒）
+         * 每次获取Token时在[0, 该值)内随机提前过期，避免大量应用同时过期
+         */
+        private int tokenExpireJitter = 60;
+        
+        /**
+         * Token存储文件路径
+         * 配置后使用内存映射文件持久化Token，同机多个JVM及重启后的进程复用仍有效的Token；为空时仅缓存在内存
+         */
+        private String tokenStorePath;
+        
+        /**
+         * 是否在启动时预热所有应用的Token
+         */
+        private boolean tokenWarmUpEnabled = false;
+        
+        /**
+         * Token预热并发数
+         */
+        private int tokenWarmUpParallelism = 4;
+        
+        /**
+         * Token预热总时间预算（毫秒）
+         * 超出预算后不再等待，未完成的应用在后台继续获取
+         */
+        private long tokenWarmUpTimeout = 10000;
+        
+        /**
+         * Token刷新失败时继续使用已过期Token的宽限期（秒）
+         * 仅对网络异常、企业微信系统繁忙等临时性失败生效，默认0不启用；已过期Token可能已被企业微信作废，需显式开启
+         */
+        private int tokenStaleGracePeriod = 0;
+        
+        /**
+         * 凭证错误（如Secret不正确）时的初始退避时间（秒）
+         * 退避期内获取Token直接失败，不再请求企业微信，连续失败时退避时间翻倍
+         */
+        private int tokenFailureBackoff = 5;
+        
+        /**
+         * 凭证错误退避时间上限（秒）
+         */
+        private int tokenFailureMaxBackoff = 300;
+        
+        /**
+         * Token获取专用连接池的最大连接数
+         * gettoken使用独立连接池，不与消息发送争抢连接
+         */
+        private int tokenMaxConnections = 4;
+        
+        /**
+         * 首次重试的退避上限（毫秒），实际等待时间在0到该值之间随机
+         * 每次重试上限翻倍，直到retryMaxInterval
+         */
+        private int retryInitialInterval = 200;
+        
+        /**
+         * 重试退避上限的最大值（毫秒）
+         */
+        private int retryMaxInterval = 5000;
+        
+        /**
+         * 从连接池获取连接的超时时间（毫秒）
+         */
+        private int connectionRequestTimeout = 5000;
+        
+        /**
+         * 单次发送的总超时时间（毫秒），涵盖获取Token、重试退避与发送请求，0表示不限制
+         */
+        private int sendTimeout = 60000;
+        
+        /**
+         * 消息发送连接池的最大连接数
+         */
+        private int maxConnections = 200;
+        
+        /**
+         * 消息发送连接池每个路由（目标地址）的最大连接数
+         */
+        private int maxConnectionsPerRoute = 50;
+        
+        /**
+         * HTTP传输实现：apache-Apache HttpClient连接池（HTTP/1.1），jdk-JDK HttpClient（优先HTTP/2多路复用）
+         */
+        private String transport = "apache";
+        
+        /**
+         * 是否在启动时预热消息发送连接并定期保活
+         */
+        private boolean connectionWarmUpEnabled = false;
+        
+        /**
+         * 预热并保活的连接数
+         */
+        private int connectionWarmUpSize = 4;
+        
+        /**
+         * 是否在异步客户端尚未启动时也预热异步连接
+         * 关闭时只在异步客户端已被使用后预热，只同步发送的应用不会因预热而启动异步客户端
+         */
+        private boolean connectionWarmUpAsync = false;
+        
+        /**
+         * 连接保活请求的间隔（毫秒）
+         * 需小于空闲连接回收时间（30秒），否则保活的连接会被回收
+         */
+        private int connectionKeepAliveInterval = 20000;
+        
+        /**
+         * 多个API基础URL（如多个地域的出口代理），配置后按各地址的延迟与错误率选择最健康的地址发送
+         * 未配置时只使用baseUrl
+         */
+        private List<String> baseUrls = new ArrayList<>();
+        
+        /**
+         * 地址错误率（指数加权）达到该值时暂时摘除该地址
+         */
+        private double endpointEjectionErrorRate = 0.5;
+        
+        /**
+         * 地址被摘除的时长（毫秒），到期后放行一个探测请求，成功则恢复
+         */
+        private int endpointEjectionTime = 30000;
+        
+        /**
+         * 未被选中的健康地址的探测间隔（毫秒），保持其延迟统计不过时
+         */
+        private int endpointProbeInterval = 10000;
+        
+        /**
+         * 是否启用应用级熔断器
+         * 企业微信持续出错或响应过慢时快速失败，不再等待超时
+         */
+        private boolean circuitBreakerEnabled = false;
+        
+        /**
+         * 熔断器统计的最近发送次数
+         */
+        private int circuitBreakerWindowSize = 50;
+        
+        /**
+         * 窗口内至少达到该发送次数才判断是否熔断
+         */
+        private int circuitBreakerMinimumCalls = 20;
+        
+        /**
+         * 错误率阈值，网络异常与可重试错误码计为失败
+         */
+        private double circuitBreakerFailureRate = 0.5;
+        
+        /**
+         * 慢调用耗时阈值（毫秒）
+         */
+        private int circuitBreakerSlowCallDuration = 10000;
+        
+        /**
+         * 慢调用比例阈值
+         */
+        private double circuitBreakerSlowCallRate = 0.8;
+        
+        /**
+         * 熔断器打开的持续时间（毫秒），到期后进入半开状态
+         */
+        private int circuitBreakerOpenDuration = 30000;
+        
+        /**
+         * 半开状态放行的探测请求数，全部成功后关闭熔断器
+         */
+        private int circuitBreakerHalfOpenCalls = 3;
+        
+        /**
+         * 是否启用自适应并发限制
+         * 按响应耗时与限流错误码动态调整同时进行的消息发送数
+         */
+        private boolean concurrencyLimitEnabled = false;
+        
+        /**
+         * 初始并发上限
+         */
+        private int concurrencyLimitInitial = 20;
+        
+        /**
+         * 并发上限的最小值
+         */
+        private int concurrencyLimitMin = 1;
+        
+        /**
+         * 并发上限的最大值，不宜超过连接池每个路由的最大连接数
+         */
+        private int concurrencyLimitMax = 50;
+        
+        /**
+         * 出现限流错误码、网络异常或响应过慢时上限乘以的比例
+         */
+        private double concurrencyLimitBackoffRatio = 0.7;
+        
+        /**
+         * 响应耗时超过基准耗时的该倍数时视为过载
+         */
+        private double concurrencyLimitRttTolerance = 2.0;
     }
     
     /**
@@ -141,6 +369,47 @@ public class SpringWeChatNoticeProperties {
         coreApi.setReadTimeout(this.api.readTimeout);
         coreApi.setRetryEnabled(this.api.retryEnabled);
         coreApi.setRetryCount(this.api.retryCount);
+        coreApi.setSyncRetryEnabled(this.api.syncRetryEnabled);
+        coreApi.setTokenRefreshAheadRatio(this.api.tokenRefreshAheadRatio);
+        coreApi.setTokenRefreshThreads(this.api.tokenRefreshThreads);
+        coreApi.setTokenExpireSafetyMargin(this.api.tokenExpireSafetyMargin);
+        coreApi.setTokenExpireJitter(this.api.tokenExpireJitter);
+        coreApi.setTokenStorePath(this.api.tokenStorePath);
+        coreApi.setTokenWarmUpEnabled(this.api.tokenWarmUpEnabled);
+        coreApi.setTokenWarmUpParallelism(this.api.tokenWarmUpParallelism);
+        coreApi.setTokenWarmUpTimeout(this.api.tokenWarmUpTimeout);
+        coreApi.setTokenStaleGracePeriod(this.api.tokenStaleGracePeriod);
+        coreApi.setTokenFailureBackoff(this.api.tokenFailureBackoff);
+        coreApi.setTokenFailureMaxBackoff(this.api.tokenFailureMaxBackoff);
+        coreApi.setTokenMaxConnections(this.api.tokenMaxConnections);
+        coreApi.setRetryInitialInterval(this.api.retryInitialInterval);
+        coreApi.setRetryMaxInterval(this.api.retryMaxInterval);
+        coreApi.setConnectionRequestTimeout(this.api.connectionRequestTimeout);
+        coreApi.setSendTimeout(this.api.sendTimeout);
+        coreApi.setMaxConnections(this.api.maxConnections);
+        coreApi.setMaxConnectionsPerRoute(this.api.maxConnectionsPerRoute);
+        coreApi.setConnectionWarmUpEnabled(this.api.connectionWarmUpEnabled);
+        coreApi.setConnectionWarmUpSize(this.api.connectionWarmUpSize);
+        coreApi.setConnectionWarmUpAsync(this.api.connectionWarmUpAsync);
+        coreApi.setConnectionKeepAliveInterval(this.api.connectionKeepAliveInterval);
+        coreApi.setBaseUrls(this.api.baseUrls);
+        coreApi.setEndpointEjectionErrorRate(this.api.endpointEjectionErrorRate);
+        coreApi.setEndpointEjectionTime(this.api.endpointEjectionTime);
+        coreApi.setEndpointProbeInterval(this.api.endpointProbeInterval);
+        coreApi.setCircuitBreakerEnabled(this.api.circuitBreakerEnabled);
+        coreApi.setCircuitBreakerWindowSize(this.api.circuitBreakerWindowSize);
+        coreApi.setCircuitBreakerMinimumCalls(this.api.circuitBreakerMinimumCalls);
+        coreApi.setCircuitBreakerFailureRate(this.api.circuitBreakerFailureRate);
+        coreApi.setCircuitBreakerSlowCallDuration(this.api.circuitBreakerSlowCallDuration);
+        coreApi.setCircuitBreakerSlowCallRate(this.api.circuitBreakerSlowCallRate);
+        coreApi.setCircuitBreakerOpenDuration(this.api.circuitBreakerOpenDuration);
+        coreApi.setCircuitBreakerHalfOpenCalls(this.api.circuitBreakerHalfOpenCalls);
+        coreApi.setConcurrencyLimitEnabled(this.api.concurrencyLimitEnabled);
+        coreApi.setConcurrencyLimitInitial(this.api.concurrencyLimitInitial);
+        coreApi.setConcurrencyLimitMin(this.api.concurrencyLimitMin);
+        coreApi.setConcurrencyLimitMax(this.api.concurrencyLimitMax);
+        coreApi.setConcurrencyLimitBackoffRatio(this.api.concurrencyLimitBackoffRatio);
+        coreApi.setConcurrencyLimitRttTolerance(this.api.concurrencyLimitRttTolerance);
         coreProperties.setApi(coreApi);
         
         // 转换应用配置
@@ -0,0 +1,129 @@
+package com.wechat.notice.starter.transport;
+
+import com.wechat.notice.client.transport.WeChatHttpRequest;
+import com.wechat.notice.client.transport.WeChatHttpResponse;
+import com.wechat.notice.client.transport.WeChatTransport;
+import com.wechat.notice.config.WeChatNoticeProperties;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 基于JDK HttpClient的传输层实现
+ * 优先通过ALPN协商HTTP/2，并发请求在少量连接上多路复用，减少告警高峰时的连接数与TLS握手；
+ * 服务端或代理不支持HTTP/2时自动回退HTTP/1.1
+ *
+ * @author fyf
+ */
+public class JdkWeChatTransport implements WeChatTransport {
+    
+    /**
+     * HTTP客户端
+     */
+    private final HttpClient httpClient;
+    
+    /**
+     * 构造方法
+     *
+     * @param httpClient HTTP客户端
+     */
+    public JdkWeChatTransport(HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+    
+    /**
+     * 创建优先使用HTTP/2的HTTP客户端
+     * JDK HttpClient只能在客户端级别设置连接超时，请求级别的超时为等待响应的总时间
+     *
+     * @param properties 微信通知配置属性
+     * @return HTTP客户端
+     */
+    public static HttpClient createHttpClient(WeChatNoticeProperties properties) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NEVER);
+        int connectTimeout = properties.getApi().getConnectTimeout();
+        if (connectTimeout > 0) {
+            builder.connectTimeout(Duration.ofMillis(connectTimeout));
+        }
+        return builder.build();
+    }
+    
+    @Override
+    public WeChatHttpResponse execute(WeChatHttpRequest request) throws IOException {
+        try {
+            return toResponse(httpClient.send(toJdkRequest(request), HttpResponse.BodyHandlers.ofByteArray()));
+        } catch (HttpTimeoutException e) {
+            throw translateTimeout(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException interrupted = new InterruptedIOException("HTTP请求被中断");
+            interrupted.initCause(e);
+            throw interrupted;
+        }
+    }
+    
+    @Override
+    public CompletableFuture<WeChatHttpResponse> executeAsync(WeChatHttpRequest request) {
+        CompletableFuture<WeChatHttpResponse> future = new CompletableFuture<>();
+        httpClient.sendAsync(toJdkRequest(request), HttpResponse.BodyHandlers.ofByteArray())
+            .whenComplete((response, error) -> {
+                if (error == null) {
+                    future.complete(toResponse(response));
+                    return;
+                }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+                future.completeExceptionally(cause instanceof HttpTimeoutException
+                    ? translateTimeout((HttpTimeoutException) cause) : cause);
+            });
+        return future;
+    }
+    
+    private static HttpRequest toJdkRequest(WeChatHttpRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.getUrl()))
+            .header("User-Agent", "WeChat-Notice-Client/1.0.0");
+        if (WeChatHttpRequest.POST.equals(request.getMethod())) {
+            builder.POST(request.getBody() != null
+                ? HttpRequest.BodyPublishers.ofByteArray(request.getBody(), 0, request.getBodyLength())
+                : HttpRequest.BodyPublishers.noBody());
+        } else {
+            builder.GET();
+        }
+        if (request.getContentType() != null) {
+            builder.header("Content-Type", request.getContentType());
+        }
+        if (request.getReadTimeout() > 0) {
+            builder.timeout(Duration.ofMillis(request.getReadTimeout()));
+        }
+        return builder.build();
+    }
+    
+    private static WeChatHttpResponse toResponse(HttpResponse<byte[]> response) {
+        byte[] body = response.body();
+        return new WeChatHttpResponse(response.statusCode(), body != null ? body : new byte[0]);
+    }
+    
+    /**
+     * 等待响应超时转换为SocketTimeoutException，与Apache实现一致：请求可能已送达，重试策略不会重发；
+     * 连接超时时请求未发出，保持原异常以便重试
+     */
+    private static IOException translateTimeout(HttpTimeoutException e) {
+        if (e instanceof HttpConnectTimeoutException) {
+            return e;
+        }
+        SocketTimeoutException timeout = new SocketTimeoutException(e.getMessage());
+        timeout.initCause(e);
+        return timeout;
+    }
+}
\ No newline at end of file
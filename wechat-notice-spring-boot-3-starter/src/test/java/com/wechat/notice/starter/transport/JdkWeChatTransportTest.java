@@ -0,0 +1,294 @@
+package com.wechat.notice.starter.transport;
+
+import com.wechat.notice.client.transport.WeChatHttpRequest;
+import com.wechat.notice.client.transport.WeChatHttpResponse;
+import com.wechat.notice.config.WeChatConfigBuilder;
+import com.wechat.notice.config.WeChatNoticeProperties;
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JdkWeChatTransport测试类
+ *
+ * @author fyf
+ */
+class JdkWeChatTransportTest {
+    
+    private static final String SEND_URL = "https://qyapi.weixin.qq.com/cgi-bin/message/send?access_token=token-1";
+    
+    @Test
+    void testCreateHttpClientPrefersHttp2() {
+        WeChatNoticeProperties properties = WeChatConfigBuilder.create().build();
+        properties.getApi().setConnectTimeout(3000);
+        
+        HttpClient httpClient = JdkWeChatTransport.createHttpClient(properties);
+        
+        assertEquals(HttpClient.Version.HTTP_2, httpClient.version());
+        assertEquals(HttpClient.Redirect.NEVER, httpClient.followRedirects());
+        assertEquals(Optional.of(Duration.ofMillis(3000)), httpClient.connectTimeout());
+    }
+    
+    @Test
+    void testPostRequestBuilding() throws Exception {
+        FakeHttpClient httpClient = new FakeHttpClient();
+        JdkWeChatTransport transport = new JdkWeChatTransport(httpClient);
+        
+        WeChatHttpResponse response = transport.execute(WeChatHttpRequest.builder()
+            .method(WeChatHttpRequest.POST)
+            .url(SEND_URL)
+            .contentType("application/json; charset=UTF-8")
+            .body("{\"msgtype\":\"text\"}".getBytes(StandardCharsets.UTF_8))
+            .readTimeout(5000)
+            .build());
+        
+        assertEquals(200, response.getStatusCode());
+        HttpRequest request = httpClient.requests.get(0);
+        assertEquals("POST", request.method());
+        assertEquals(URI.create(SEND_URL), request.uri());
+        assertEquals(Optional.of("application/json; charset=UTF-8"), request.headers().firstValue("Content-Type"));
+        assertEquals(Optional.of(Duration.ofMillis(5000)), request.timeout());
+        assertEquals(18L, request.bodyPublisher().map(HttpRequest.BodyPublisher::contentLength).orElse(-1L));
+    }
+    
+    @Test
+    void testPostBodyLengthHonored() throws Exception {
+        FakeHttpClient httpClient = new FakeHttpClient();
+        JdkWeChatTransport transport = new JdkWeChatTransport(httpClient);
+        
+        // 只发送数组中有效长度内的字节
+        transport.execute(WeChatHttpRequest.builder()
+            .method(WeChatHttpRequest.POST)
+            .url(SEND_URL)
+            .body(new byte[64], 18)
+            .build());
+        
+        HttpRequest request = httpClient.requests.get(0);
+        assertEquals(18L, request.bodyPublisher().map(HttpRequest.BodyPublisher::contentLength).orElse(-1L));
+    }
+    
+    @Test
+    void testGetRequestWithoutReadTimeout() throws Exception {
+        FakeHttpClient httpClient = new FakeHttpClient();
+        JdkWeChatTransport transport = new JdkWeChatTransport(httpClient);
+        
+        transport.executeAsync(WeChatHttpRequest.builder()
+            .method(WeChatHttpRequest.GET)
+            .url("https://qyapi.weixin.qq.com/cgi-bin/gettoken?corpid=corp&corpsecret=secret")
+            .build()).get();
+        
+        HttpRequest request = httpClient.requests.get(0);
+        assertEquals("GET", request.method());
+        assertFalse(request.headers().firstValue("Content-Type").isPresent());
+        assertFalse(request.timeout().isPresent());
+    }
+    
+    @Test
+    void testResponseTimeoutTranslatedToSocketTimeout() {
+        FakeHttpClient httpClient = new FakeHttpClient();
+        httpClient.error = new HttpTimeoutException("request timed out");
+        JdkWeChatTransport transport = new JdkWeChatTransport(httpClient);
+        
+        // 等待响应超时时请求可能已送达，按SocketTimeoutException处理，不会被重发
+        SocketTimeoutException e = assertThrows(SocketTimeoutException.class, () -> transport.execute(sendRequest()));
+        assertSame(httpClient.error, e.getCause());
+        
+        ExecutionException async = assertThrows(ExecutionException.class,
+            () -> transport.executeAsync(sendRequest()).get());
+        assertInstanceOf(SocketTimeoutException.class, async.getCause());
+        assertSame(httpClient.error, async.getCause().getCause());
+    }
+    
+    @Test
+    void testConnectTimeoutKeptAsIs() {
+        FakeHttpClient httpClient = new FakeHttpClient();
+        httpClient.error = new HttpConnectTimeoutException("HTTP connect timed out");
+        JdkWeChatTransport transport = new JdkWeChatTransport(httpClient);
+        
+        // 连接超时时请求未发出，保持原异常以便重试
+        assertSame(httpClient.error, assertThrows(HttpConnectTimeoutException.class,
+            () -> transport.execute(sendRequest())));
+        
+        ExecutionException async = assertThrows(ExecutionException.class,
+            () -> transport.executeAsync(sendRequest()).get());
+        assertSame(httpClient.error, async.getCause());
+    }
+    
+    private static WeChatHttpRequest sendRequest() {
+        return WeChatHttpRequest.builder()
+            .method(WeChatHttpRequest.POST)
+            .url(SEND_URL)
+            .body(new byte[0])
+            .readTimeout(1000)
+            .build();
+    }
+    
+    /**
+     * 记录请求的HTTP客户端，不发送真实请求
+     */
+    private static class FakeHttpClient extends HttpClient {
+        
+        /**
+         * 收到的请求
+         */
+        private final List<HttpRequest> requests = new CopyOnWriteArrayList<>();
+        
+        /**
+         * 非空时发送请求固定抛出该异常
+         */
+        private volatile IOException error;
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler)
+                throws IOException {
+            requests.add(request);
+            if (error != null) {
+                throw error;
+            }
+            return (HttpResponse<T>) new FakeResponse(request);
+        }
+        
+        @Override
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                                HttpResponse.BodyHandler<T> responseBodyHandler) {
+            try {
+                return CompletableFuture.completedFuture(send(request, responseBodyHandler));
+            } catch (IOException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        
+        @Override
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                                HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                                HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+            return sendAsync(request, responseBodyHandler);
+        }
+        
+        @Override
+        public Optional<CookieHandler> cookieHandler() {
+            return Optional.empty();
+        }
+        
+        @Override
+        public Optional<Duration> connectTimeout() {
+            return Optional.empty();
+        }
+        
+        @Override
+        public Redirect followRedirects() {
+            return Redirect.NEVER;
+        }
+        
+        @Override
+        public Optional<ProxySelector> proxy() {
+            return Optional.empty();
+        }
+        
+        @Override
+        public SSLContext sslContext() {
+            return null;
+        }
+        
+        @Override
+        public SSLParameters sslParameters() {
+            return null;
+        }
+        
+        @Override
+        public Optional<Authenticator> authenticator() {
+            return Optional.empty();
+        }
+        
+        @Override
+        public Version version() {
+            return Version.HTTP_2;
+        }
+        
+        @Override
+        public Optional<Executor> executor() {
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * 固定返回200与空JSON的响应
+     */
+    private static class FakeResponse implements HttpResponse<byte[]> {
+        
+        /**
+         * 对应的请求
+         */
+        private final HttpRequest request;
+        
+        FakeResponse(HttpRequest request) {
+            this.request = request;
+        }
+        
+        @Override
+        public HttpRequest request() {
+            return request;
+        }
+        
+        @Override
+        public int statusCode() {
+            return 200;
+        }
+        
+        @Override
+        public Optional<HttpResponse<byte[]>> previousResponse() {
+            return Optional.empty();
+        }
+        
+        @Override
+        public HttpHeaders headers() {
+            return HttpHeaders.of(Collections.emptyMap(), (name, value) -> true);
+        }
+        
+        @Override
+        public byte[] body() {
+            return "{}".getBytes(StandardCharsets.UTF_8);
+        }
+        
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+        
+        @Override
+        public URI uri() {
+            return request.uri();
+        }
+        
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_2;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.wechat.notice.starter.condition;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+import java.lang.annotation.*;
+
+/**
+ * 微信连接预热启用条件注解
+ * 
+ * @author fyf
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ConditionalOnProperty(
+    prefix = "wechat.notice.api", 
+    name = "connection-warm-up-enabled", 
+    havingValue = "true"
+)
+public @interface ConditionalOnWeChatConnectionWarmUpEnabled {
+}
\ No newline at end of file